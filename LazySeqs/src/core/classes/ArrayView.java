@@ -0,0 +1,32 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * read only list over the range [from, from + size) of an array, the array is not copied
+ * */
+final class ArrayView<E> extends AbstractList<E> implements RandomAccess {
+    private final Object[] array;
+    private final int from;
+    private final int size;
+
+    ArrayView(Object[] array, int from, int size) {
+        this.array = array;
+        this.from = from;
+        this.size = size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) array[from + index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,146 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * list of the elements of upstream mapped by function, the traversals compute the next
+ * concurrency elements on an executor while the current one is consumed, get computes
+ * a single element on the calling thread.
+ * a traversal stops when upstream has no more elements, so a source pulled from an iterator
+ * is only pulled as far as the prefetched elements
+ * */
+final class AsyncList<T, W> extends AbstractList<W> implements RandomAccess, IndexedSource {
+    static final Executor DEFAULT_EXECUTOR = defaultExecutor();
+
+    private final Seq<T> upstream;
+    private final Function<? super T, ? extends W> function;
+    private final int concurrency;
+    private final Executor executor;
+
+    AsyncList(Seq<T> upstream, Function<? super T, ? extends W> function, int concurrency, Executor executor) {
+        this.upstream = upstream;
+        this.function = function;
+        this.concurrency = concurrency;
+        this.executor = executor;
+    }
+
+    // virtual threads when the JDK has them (21+), daemon threads otherwise
+    private static Executor defaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                var thread = new Thread(runnable, "lazyseq-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public W get(int index) {
+        return function.apply(upstream.get(index));
+    }
+
+    @Override
+    public int size() {
+        return upstream.size();
+    }
+
+    @Override
+    public boolean isSized() {
+        return upstream.isSized();
+    }
+
+    @Override
+    public boolean hasIndex(int index) {
+        return upstream.hasIndex(index);
+    }
+
+    private boolean available(int index, int end) {
+        return index < end && upstream.hasIndex(index);
+    }
+
+    private final class Prefetcher implements Iterator<W> {
+        private final ArrayDeque<CompletableFuture<W>> window = new ArrayDeque<>();
+        private final int end;
+        private int next;
+
+        private Prefetcher(int from, int end) {
+            this.next = from;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !window.isEmpty() || available(next, end);
+        }
+
+        @Override
+        public W next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (window.size() < concurrency && available(next, end)) {
+                var index = next++;
+                window.add(CompletableFuture.supplyAsync(() -> get(index), executor));
+            }
+            try {
+                return window.poll().join();
+            } catch (CompletionException e) {
+                cancel();
+                var cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        private void cancel() {
+            window.forEach(future -> future.cancel(false));
+            window.clear();
+            next = end;
+        }
+    }
+
+    @Override
+    public void forEachInRange(int from, int to, Consumer<Object> action) {
+        var prefetcher = new Prefetcher(from, to);
+        try {
+            while (prefetcher.hasNext()) {
+                action.accept(prefetcher.next());
+            }
+        } finally {
+            prefetcher.cancel();
+        }
+    }
+
+    @Override
+    public Iterator<W> iterator() {
+        return new Prefetcher(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Spliterator<W> spliterator() {
+        if (!isSized()) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+}
@@ -0,0 +1,104 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * list of the elements of upstream mapped chunk by chunk by a batch function.
+ * a chunk is computed the first time one of its elements is needed then cached,
+ * like MemoPolicy.full() the chunks are published with a CAS so concurrent readers share them.
+ * the table of chunks grows by pages, so upstream is only pulled up to the chunks requested
+ * */
+final class BatchList<T, W> extends AbstractList<W> implements RandomAccess, IndexedSource {
+    private final Seq<T> upstream;
+    private final int chunkSize;
+    private final Function<? super List<T>, ? extends List<? extends W>> function;
+    private final PagedArray<List<? extends W>> chunks = new PagedArray<>();
+
+    BatchList(Seq<T> upstream, int chunkSize, Function<? super List<T>, ? extends List<? extends W>> function) {
+        this.upstream = upstream;
+        this.chunkSize = chunkSize;
+        this.function = function;
+    }
+
+    private List<? extends W> chunk(int chunk) {
+        var values = chunks.get(chunk);
+        if (values != null) {
+            return values;
+        }
+        var from = chunk * chunkSize;
+        var input = new ArrayList<T>();
+        upstream.skip(from).limit(chunkSize).forEach(input::add);
+        var computed = function.apply(Collections.unmodifiableList(input));
+        if (computed == null || computed.size() != input.size()) {
+            throw new IllegalStateException("the batch function must return " + input.size() + " elements for chunk " + chunk);
+        }
+        var witness = chunks.compareAndExchange(chunk, null, computed);
+        return witness == null ? computed : witness;
+    }
+
+    @Override
+    public W get(int index) {
+        if (index < 0 || !upstream.hasIndex(index)) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size());
+        }
+        return chunk(index / chunkSize).get(index % chunkSize);
+    }
+
+    @Override
+    public int size() {
+        return upstream.size();
+    }
+
+    @Override
+    public boolean isSized() {
+        return upstream.isSized();
+    }
+
+    @Override
+    public boolean hasIndex(int index) {
+        return upstream.hasIndex(index);
+    }
+
+    @Override
+    public Iterator<W> iterator() {
+        return isSized() ? super.iterator() : IndexedSource.iterator(this);
+    }
+
+    @Override
+    public Spliterator<W> spliterator() {
+        return isSized() ? super.spliterator() : IndexedSource.spliterator(this);
+    }
+
+    @Override
+    public int splitPoint(int from, int to) {
+        var mid = (from + to) >>> 1;
+        var aligned = mid - mid % chunkSize;
+        if (aligned <= from) {
+            aligned += chunkSize;
+        }
+        // a range inside a single chunk is not split, the chunk is computed as a whole anyway
+        return aligned < to ? aligned : from;
+    }
+
+    @Override
+    public void forEachInRange(int from, int to, Consumer<Object> action) {
+        var index = from;
+        while (index < to) {
+            var values = chunk(index / chunkSize);
+            var offset = index % chunkSize;
+            var length = Math.min(values.size() - offset, to - index);
+            for (var i = 0; i < length; i++) {
+                action.accept(values.get(offset + i));
+            }
+            index += length;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package core.classes;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * lazySeq indexed by a long so it can have more than 2^31 elements,
+ * the elements are fixed size values stored off-heap (outside of the GC heap) using a RecordCodec.
+ * like Seq, map is lazy and the mapper is applied each time an element is accessed
+ * */
+public class BigSeq<T> implements Iterable<T> {
+    private static final long DEFAULT_LEAF_SIZE = 1024;
+
+    private final OffHeapStorage<?> storage;
+    private final Pipeline<T> mapper;
+
+    private BigSeq(OffHeapStorage<?> storage, Pipeline<T> mapper) {
+        this.storage = storage;
+        this.mapper = mapper;
+    }
+
+    /**
+     * creates a BigSeq of size elements, the element at index i is generator.apply(i) encoded off-heap by codec
+     * @param size long
+     * @param codec RecordCodec<v>
+     * @param generator LongFunction<? extends v>
+     * @return BigSeq<v>
+     * @throws IllegalArgumentException if size is negative
+     * @throws NullPointerException if the generator returns null
+     * */
+    public static <v> BigSeq<v> tabulate(long size, RecordCodec<v> codec, LongFunction<? extends v> generator) {
+        Objects.requireNonNull(codec);
+        Objects.requireNonNull(generator);
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be positive or zero " + size);
+        }
+        var storage = new OffHeapStorage<>(codec, size);
+        for (var i = 0L; i < size; i++) {
+            storage.set(i, Objects.requireNonNull(generator.apply(i)));
+        }
+        return new BigSeq<>(storage, Pipeline.identity());
+    }
+
+    /**
+     * creates a BigSeq from a Collection<? extends v>, the elements are copied off-heap
+     * @param list Collection<? extends v>
+     * @param codec RecordCodec<v>
+     * @return BigSeq<v>
+     * @throws NullPointerException if an element is null
+     * */
+    public static <v> BigSeq<v> from(Collection<? extends v> list, RecordCodec<v> codec) {
+        Objects.requireNonNull(list);
+        Objects.requireNonNull(codec);
+        var storage = new OffHeapStorage<>(codec, list.size());
+        var i = 0L;
+        for (var element : list) {
+            storage.set(i++, Objects.requireNonNull(element));
+        }
+        return new BigSeq<>(storage, Pipeline.identity());
+    }
+
+    /**
+     * get a value by index from the BigSeq by applying the stored mapper function
+     * @param i long
+     * @return T
+     * */
+    public T get(long i) {return mapper.apply(storage.get(i));}
+
+    /**
+     * returns the size of the BigSeq
+     * */
+    public long size() {
+        return storage.size();
+    }
+
+    /**
+     * return the first element of the BigSeq or Optional.empty() if the BigSeq is empty
+     * @return Optional<T>
+     * */
+    public Optional<T> findFirst() {
+        if (storage.size() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(get(0));
+    }
+
+    /**
+     * lazy implementation of map, the function is added as a new stage of the mapper
+     * @param function Function<? super T, ? extends W>
+     * @return BigSeq<W>
+     * */
+    public <W> BigSeq<W> map(Function<? super T, ? extends W> function) {
+        Objects.requireNonNull(function);
+        return new BigSeq<>(storage, mapper.then(function));
+    }
+
+    /**
+     * return an iterator of the BigSeq
+     * @return Iterator<T>
+     * */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private long i;
+
+            @Override
+            public boolean hasNext() {
+                return i < storage.size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(i++);
+            }
+        };
+    }
+
+    private Spliterator<T> spliterator(long start, long end, long leafSize) {
+        return new Spliterator<>() {
+            private long i = start;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                if (i == end) {
+                    return false;
+                }
+                action.accept(get(i++));
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                var from = i;
+                i = end;
+                for (var index = from; index < end; index++) {
+                    action.accept(get(index));
+                }
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                if (end - i < 2 * leafSize) {
+                    return null;
+                }
+                var mid = (i + end) >>> 1;
+                var split = spliterator(i, mid, leafSize);
+                i = mid;
+                return split;
+            }
+
+            @Override
+            public long estimateSize() {
+                return end - i;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | IMMUTABLE | NONNULL | SIZED | SUBSIZED;
+            }
+        };
+    }
+
+    /**
+     * returns a stream of the BigSeq
+     * @return Stream<T>
+     * */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(0, storage.size(), DEFAULT_LEAF_SIZE), false);
+    }
+
+    /**
+     * returns a parallel stream of the BigSeq
+     * @return Stream<T>
+     * */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(0, storage.size(), DEFAULT_LEAF_SIZE), true);
+    }
+
+    /**
+     * Performs the given action for each element of the BigSeq
+     * @param consumer Consumer<? super T>
+     * @throws NullPointerException if consumer is null
+     * */
+    @Override
+    public void forEach(Consumer<? super T> consumer) {
+        Objects.requireNonNull(consumer);
+        var size = storage.size();
+        for (var i = 0L; i < size; i++) {
+            consumer.accept(get(i));
+        }
+    }
+
+    /**
+     * return a string representing the BigSeq elements have a prefix "<" and suffix ">"
+     * separated by ", "
+     * @return String
+     * */
+    @Override
+    public String toString() {
+        var sj = new StringJoiner(", ", "<", ">");
+        forEach(e -> sj.add(e.toString()));
+        return sj.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package core.classes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.Collector;
+
+/**
+ * binary format of Seq.writeBinary and Seq.readBinary, in big endian:
+ * <pre>
+ * header   int magic "LSEQ", int version
+ * payload  the bytes of the elements one after the other
+ * table    long[count + 1] the offset of each element from the start of the file then the end of the payload
+ * trailer  long offset of the table, int count, int magic "LSEQ"
+ * </pre>
+ * the writer streams the payload by batches of elements, the table is written at the end.
+ * the reader only reads the trailer, an element is decoded from its range of bytes when it is accessed
+ * */
+final class BinaryFormat {
+    private static final int MAGIC = 0x4C534551; // LSEQ
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int TRAILER_BYTES = 16;
+    // number of elements encoded before being written to the channel
+    private static final int BATCH_SIZE = 1 << 16;
+    // number of elements of a range encoded by a task when the encoding is parallel
+    private static final int PARALLEL_THRESHOLD = 4096;
+    // bytes of the table written at once
+    private static final int TABLE_BUFFER_BYTES = 1 << 16;
+    private static final int MAX_CHUNK_SHIFT = 30;
+
+    private BinaryFormat() {
+        throw new AssertionError();
+    }
+
+    /**
+     * encoded elements of a range of indexes
+     * */
+    private static final class Encoded {
+        private final Bytes bytes = new Bytes();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int[] lengths = new int[64];
+        private int count;
+
+        private <T> void add(ElementCodec<? super T> codec, T element) {
+            var before = bytes.size();
+            try {
+                codec.encode(element, out);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (count == lengths.length) {
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            lengths[count++] = bytes.size() - before;
+        }
+    }
+
+    private static final class Bytes extends ByteArrayOutputStream {
+        private ByteBuffer buffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static <T> void write(Seq<T> seq, WritableByteChannel channel, ElementCodec<? super T> codec, boolean parallel) throws IOException {
+        var size = seq.size();
+        var offsets = new long[size + 1];
+        writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip());
+        var position = (long) HEADER_BYTES;
+        var collector = Collector.<T, ArrayList<Encoded>>of(() -> {
+            var list = new ArrayList<Encoded>();
+            list.add(new Encoded());
+            return list;
+        }, (list, element) -> list.get(list.size() - 1).add(codec, element), (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+        var index = 0;
+        for (var from = 0; from < size; from += BATCH_SIZE) {
+            var batch = seq.subSeq(from, (int) Math.min((long) from + BATCH_SIZE, size));
+            ArrayList<Encoded> encoded;
+            try {
+                encoded = batch.collect(collector, parallel ? PARALLEL_THRESHOLD : Integer.MAX_VALUE);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (var range : encoded) {
+                for (var i = 0; i < range.count; i++) {
+                    offsets[index++] = position;
+                    position += range.lengths[i];
+                }
+                writeFully(channel, range.bytes.buffer());
+            }
+        }
+        offsets[size] = position;
+        var table = ByteBuffer.allocate(TABLE_BUFFER_BYTES);
+        for (var offset : offsets) {
+            if (!table.hasRemaining()) {
+                writeFully(channel, table.flip());
+                table.clear();
+            }
+            table.putLong(offset);
+        }
+        writeFully(channel, table.flip());
+        writeFully(channel, ByteBuffer.allocate(TRAILER_BYTES).putLong(position).putInt(size).putInt(MAGIC).flip());
+    }
+
+    static <T> BinaryList<T> map(Path path, ElementCodec<T> codec) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var bytes = channel.size();
+            var chunkBytes = 1L << MAX_CHUNK_SHIFT;
+            var chunks = new ByteBuffer[(int) ((bytes + chunkBytes - 1) / chunkBytes)];
+            for (var chunk = 0; chunk < chunks.length; chunk++) {
+                var position = chunk * chunkBytes;
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkBytes, bytes - position));
+            }
+            return new BinaryList<>(codec, chunks, MAX_CHUNK_SHIFT, bytes);
+        }
+    }
+
+    static <T> BinaryList<T> wrap(ByteBuffer buffer, ElementCodec<T> codec) {
+        // a ByteBuffer has less than 2^31 bytes so a single chunk is enough
+        return new BinaryList<>(codec, new ByteBuffer[] { buffer.slice() }, Integer.SIZE - 1, buffer.remaining());
+    }
+
+    /**
+     * read only list of the elements of a buffer in the binary format, decoded when they are accessed.
+     * the bytes are stored in chunks of 2^shift bytes, an element or a long that spans two chunks is copied
+     * */
+    static final class BinaryList<T> extends AbstractList<T> implements RandomAccess, IndexedSource {
+        private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+        private final ElementCodec<T> codec;
+        private final ByteBuffer[] chunks;
+        private final int shift;
+        private final long table;
+        private final int size;
+
+        private BinaryList(ElementCodec<T> codec, ByteBuffer[] chunks, int shift, long bytes) {
+            this.codec = codec;
+            this.chunks = chunks;
+            this.shift = shift;
+            for (var i = 0; i < chunks.length; i++) {
+                chunks[i] = chunks[i].order(ByteOrder.BIG_ENDIAN);
+            }
+            if (bytes < HEADER_BYTES + Long.BYTES + TRAILER_BYTES
+                    || readInt(0) != MAGIC || readInt(bytes - Integer.BYTES) != MAGIC) {
+                throw new IllegalArgumentException("not a lazySeq binary format");
+            }
+            if (readInt(Integer.BYTES) != VERSION) {
+                throw new IllegalArgumentException("unknown version of the binary format " + readInt(Integer.BYTES));
+            }
+            this.table = readLong(bytes - TRAILER_BYTES);
+            this.size = readInt(bytes - TRAILER_BYTES + Long.BYTES);
+            if (size < 0 || table + (size + 1L) * Long.BYTES + TRAILER_BYTES != bytes) {
+                throw new IllegalArgumentException("corrupted binary format");
+            }
+        }
+
+        private ByteBuffer copy(long position, int length) {
+            var copy = ByteBuffer.allocate(length);
+            while (copy.hasRemaining()) {
+                var chunk = chunks[(int) (position >>> shift)];
+                var offset = (int) (position & ((1L << shift) - 1));
+                var count = Math.min(copy.remaining(), chunk.limit() - offset);
+                copy.put(chunk.slice(offset, count));
+                position += count;
+            }
+            return copy.flip();
+        }
+
+        private int readInt(long position) {
+            var chunk = chunks[(int) (position >>> shift)];
+            var offset = (int) (position & ((1L << shift) - 1));
+            if (offset + Integer.BYTES <= chunk.limit()) {
+                return chunk.getInt(offset);
+            }
+            return copy(position, Integer.BYTES).getInt(0);
+        }
+
+        private long readLong(long position) {
+            var chunk = chunks[(int) (position >>> shift)];
+            var offset = (int) (position & ((1L << shift) - 1));
+            if (offset + Long.BYTES <= chunk.limit()) {
+                return chunk.getLong(offset);
+            }
+            return copy(position, Long.BYTES).getLong(0);
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            var start = readLong(table + (long) index * Long.BYTES);
+            var length = (int) (readLong(table + (index + 1L) * Long.BYTES) - start);
+            if (length == 0) {
+                return codec.decode(EMPTY, 0, 0);
+            }
+            var chunk = chunks[(int) (start >>> shift)];
+            var offset = (int) (start & ((1L << shift) - 1));
+            if (offset + length <= chunk.limit()) {
+                return codec.decode(chunk, offset, length);
+            }
+            return codec.decode(copy(start, length), 0, length);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package core.classes;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * records stored by columns, created by Seq.columnar(type, records).
+ * each component of the record is stored in its own array: int[] for int, short, byte and char,
+ * long[] for long, double[] for double and float, Object[] for the other types, so there is no object per record.
+ * a projection on a component (intColumn, longColumn, doubleColumn, column) reads only the array
+ * of that component without copying it, rows() rebuilds the records on demand
+ * */
+public final class Columnar<R extends Record> {
+    private final Class<R> type;
+    private final RecordComponent[] components;
+    private final Constructor<R> constructor;
+    private final Object[] columns; // int[], long[], double[] or Object[] by component
+    private final int size;
+
+    private Columnar(Class<R> type, RecordComponent[] components, Constructor<R> constructor, Object[] columns, int size) {
+        this.type = type;
+        this.components = components;
+        this.constructor = constructor;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    static <R extends Record> Columnar<R> of(Class<R> type, Collection<? extends R> records) {
+        var components = type.getRecordComponents();
+        if (components == null) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        var types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        Constructor<R> constructor;
+        try {
+            constructor = type.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            for (var component : components) {
+                component.getAccessor().setAccessible(true);
+            }
+        } catch (NoSuchMethodException | RuntimeException e) {
+            throw new IllegalArgumentException("the components of " + type.getName() + " are not accessible", e);
+        }
+        var size = records.size();
+        var columns = new Object[components.length];
+        for (var c = 0; c < components.length; c++) {
+            columns[c] = newColumn(types[c], size);
+        }
+        var index = 0;
+        for (var record : records) {
+            Objects.requireNonNull(record);
+            for (var c = 0; c < components.length; c++) {
+                store(columns[c], index, read(components[c], record));
+            }
+            index++;
+        }
+        return new Columnar<>(type, components, constructor, columns, size);
+    }
+
+    private static Object newColumn(Class<?> type, int size) {
+        if (type == int.class || type == short.class || type == byte.class || type == char.class) {
+            return new int[size];
+        }
+        if (type == long.class) {
+            return new long[size];
+        }
+        if (type == double.class || type == float.class) {
+            return new double[size];
+        }
+        return new Object[size];
+    }
+
+    private static Object read(RecordComponent component, Object record) {
+        try {
+            return Objects.requireNonNull(component.getAccessor().invoke(record), component.getName());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    private static void store(Object column, int index, Object value) {
+        if (column instanceof int[]) {
+            ((int[]) column)[index] = value instanceof Character ? (Character) value : ((Number) value).intValue();
+        } else if (column instanceof long[]) {
+            ((long[]) column)[index] = (Long) value;
+        } else if (column instanceof double[]) {
+            ((double[]) column)[index] = ((Number) value).doubleValue();
+        } else {
+            ((Object[]) column)[index] = value;
+        }
+    }
+
+    private Object load(int c, int index) {
+        var column = columns[c];
+        var type = components[c].getType();
+        if (column instanceof int[]) {
+            var value = ((int[]) column)[index];
+            if (type == short.class) {
+                return (short) value;
+            }
+            if (type == byte.class) {
+                return (byte) value;
+            }
+            if (type == char.class) {
+                return (char) value;
+            }
+            return value;
+        }
+        if (column instanceof long[]) {
+            return ((long[]) column)[index];
+        }
+        if (column instanceof double[]) {
+            var value = ((double[]) column)[index];
+            return type == float.class ? (Object) (float) value : (Object) value;
+        }
+        return ((Object[]) column)[index];
+    }
+
+    private int component(String name) {
+        Objects.requireNonNull(name);
+        for (var c = 0; c < components.length; c++) {
+            if (components[c].getName().equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("no component " + name + " in " + type.getName());
+    }
+
+    private IllegalArgumentException wrongType(int c, String expected) {
+        return new IllegalArgumentException("the component " + components[c].getName() + " of type "
+                + components[c].getType().getName() + " is not stored as " + expected);
+    }
+
+    /**
+     * returns the number of records
+     * @return int
+     * */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the column of an int, short, byte or char component as an IntSeq, the column is not copied
+     * @param name String the name of the component
+     * @return IntSeq
+     * @throws IllegalArgumentException if there is no such component or if it is not stored as int
+     * */
+    public IntSeq intColumn(String name) {
+        var c = component(name);
+        if (!(columns[c] instanceof int[])) {
+            throw wrongType(c, "int");
+        }
+        return new IntSeq((int[]) columns[c], IntUnaryOperator.identity());
+    }
+
+    /**
+     * returns the column of a long component as a LongSeq, the column is not copied
+     * @param name String the name of the component
+     * @return LongSeq
+     * @throws IllegalArgumentException if there is no such component or if it is not a long
+     * */
+    public LongSeq longColumn(String name) {
+        var c = component(name);
+        if (!(columns[c] instanceof long[])) {
+            throw wrongType(c, "long");
+        }
+        return new LongSeq((long[]) columns[c], LongUnaryOperator.identity());
+    }
+
+    /**
+     * returns the column of a double or float component as a DoubleSeq, the column is not copied
+     * @param name String the name of the component
+     * @return DoubleSeq
+     * @throws IllegalArgumentException if there is no such component or if it is not stored as double
+     * */
+    public DoubleSeq doubleColumn(String name) {
+        var c = component(name);
+        if (!(columns[c] instanceof double[])) {
+            throw wrongType(c, "double");
+        }
+        return new DoubleSeq((double[]) columns[c], DoubleUnaryOperator.identity());
+    }
+
+    /**
+     * returns the values of a component as a lazySeq, the column is not copied,
+     * the values of a primitive column are boxed when they are read
+     * @param name String the name of the component
+     * @param valueType Class<V> the type of the component, its wrapper type for a primitive
+     * @return Seq<V>
+     * @throws IllegalArgumentException if there is no such component or if valueType does not match its type
+     * */
+    @SuppressWarnings("unchecked")
+    public <V> Seq<V> column(String name, Class<V> valueType) {
+        Objects.requireNonNull(valueType);
+        var c = component(name);
+        var componentType = components[c].getType();
+        var boxed = componentType.isPrimitive() ? MethodType.methodType(componentType).wrap().returnType() : componentType;
+        if (!valueType.isAssignableFrom(boxed)) {
+            throw wrongType(c, valueType.getName());
+        }
+        if (columns[c] instanceof Object[]) {
+            return (Seq<V>) Seq.wrap((Object[]) columns[c]);
+        }
+        return Seq.tabulate(size, index -> valueType.cast(load(c, index)));
+    }
+
+    /**
+     * returns a lazySeq of the records, a record is rebuilt from the columns each time it is read
+     * @return Seq<R>
+     * */
+    public Seq<R> rows() {
+        return Seq.tabulate(size, this::row);
+    }
+
+    private R row(int index) {
+        var arguments = new Object[components.length];
+        for (var c = 0; c < components.length; c++) {
+            arguments[c] = load(c, index);
+        }
+        try {
+            return constructor.newInstance(arguments);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Columnar " + type.getSimpleName() + " " + size + " records";
+    }
+}
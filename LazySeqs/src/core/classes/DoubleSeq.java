@@ -0,0 +1,231 @@
+package core.classes;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * lazySeq of double values backed by a double[], the values are never boxed
+ * by get, forEach, iterator or stream
+ * */
+public class DoubleSeq {
+    private final double[] seq;
+    private final DoubleUnaryOperator mapper;
+
+    DoubleSeq(double[] seq, DoubleUnaryOperator mapper) {
+        this.seq = seq;
+        this.mapper = mapper;
+    }
+
+    /**
+     * creates a DoubleSeq from arbitrary values (varargs), the array is copied
+     * @param values double ...values
+     * @return DoubleSeq
+     * */
+    public static DoubleSeq of(double ...values) {
+        Objects.requireNonNull(values);
+        return new DoubleSeq(values.clone(), DoubleUnaryOperator.identity());
+    }
+
+    /**
+     * get a value by index from the DoubleSeq by applying the stored mapper function
+     * @param i int
+     * @return double
+     * */
+    public double get(int i) {return mapper.applyAsDouble(seq[i]);}
+
+    /**
+     * returns the size of the DoubleSeq
+     * */
+    public int size() {
+        return seq.length;
+    }
+
+    /**
+     * return the first element of the DoubleSeq or OptionalDouble.empty() if the DoubleSeq is empty
+     * @return OptionalDouble
+     * */
+    public OptionalDouble findFirst() {
+        if (seq.length == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(mapper.applyAsDouble(seq[0]));
+    }
+
+    /**
+     * lazy implementation of map, the function is composed with the stored mapper
+     * @param function DoubleUnaryOperator
+     * @return DoubleSeq
+     * */
+    public DoubleSeq map(DoubleUnaryOperator function) {
+        Objects.requireNonNull(function);
+        return new DoubleSeq(seq, mapper.andThen(function));
+    }
+
+    /**
+     * lazily maps the values of the DoubleSeq to objects
+     * @param function DoubleFunction<? extends W>
+     * @return Seq<W>
+     * */
+    public <W> Seq<W> mapToObj(DoubleFunction<? extends W> function) {
+        Objects.requireNonNull(function);
+        return Seq.tabulate(seq.length, i -> function.apply(get(i)));
+    }
+
+    /**
+     * returns a lazySeq of the boxed values, the values are boxed only when they are accessed
+     * @return Seq<Double>
+     * */
+    public Seq<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    /**
+     * return an iterator of the DoubleSeq
+     * @return PrimitiveIterator.OfDouble
+     * */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < seq.length;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapper.applyAsDouble(seq[i++]);
+            }
+        };
+    }
+
+    private Spliterator.OfDouble spliterator(int start, int end) {
+        return new Spliterator.OfDouble() {
+            private int i = start;
+
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                Objects.requireNonNull(action);
+                if (i == end) {
+                    return false;
+                }
+                action.accept(mapper.applyAsDouble(seq[i++]));
+                return true;
+            }
+
+            @Override
+            public Spliterator.OfDouble trySplit() {
+                var mid = (i + end) >>> 1;
+                if (mid == i) {
+                    return null;
+                }
+                var split = spliterator(i, mid);
+                i = mid;
+                return split;
+            }
+
+            @Override
+            public long estimateSize() {
+                return end - i;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | IMMUTABLE | NONNULL | SIZED;
+            }
+        };
+    }
+
+    /**
+     * returns an DoubleStream of the DoubleSeq
+     * @return DoubleStream
+     * */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(0, seq.length), false);
+    }
+
+    /**
+     * Performs the given action for each element of the DoubleSeq
+     * @param consumer DoubleConsumer
+     * @throws NullPointerException if consumer is null
+     * */
+    public void forEach(DoubleConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for (var e : seq) {
+            consumer.accept(mapper.applyAsDouble(e));
+        }
+    }
+
+    /**
+     * returns the sum of the values of the DoubleSeq, the indexes are split in ranges
+     * summed in parallel on the fork/join pool
+     * the ranges are summed in parallel so the rounding may differ from a sequential sum
+     * @return double
+     * */
+    public double sum() {
+        return RangeTask.invoke(seq.length, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            double sum = 0;
+            for (var index = from; index < to; index++) {
+                sum += mapper.applyAsDouble(seq[index]);
+            }
+            return sum;
+        }, (Double left, Double right) -> left + right);
+    }
+
+    /**
+     * returns the smallest value of the DoubleSeq, computed in parallel like sum()
+     * @return OptionalDouble empty if the DoubleSeq is empty
+     * */
+    public OptionalDouble min() {
+        return reduce(Math::min);
+    }
+
+    /**
+     * returns the biggest value of the DoubleSeq, computed in parallel like sum()
+     * @return OptionalDouble empty if the DoubleSeq is empty
+     * */
+    public OptionalDouble max() {
+        return reduce(Math::max);
+    }
+
+    private OptionalDouble reduce(DoubleBinaryOperator operator) {
+        if (seq.length == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(RangeTask.invoke(seq.length, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            var index = from;
+            var result = mapper.applyAsDouble(seq[index]);
+            for (index++; index < to; index++) {
+                result = operator.applyAsDouble(result, mapper.applyAsDouble(seq[index]));
+            }
+            return result;
+        }, (Double left, Double right) -> operator.applyAsDouble(left, right)));
+    }
+
+    /**
+     * return a string representing the DoubleSeq elements have a prefix "<" and suffix ">"
+     * separated by ", "
+     * @return String
+     * */
+    @Override
+    public String toString() {
+        var sj = new StringJoiner(", ", "<", ">");
+        for (var v : seq) {
+            sj.add(String.valueOf(mapper.applyAsDouble(v)));
+        }
+        return sj.toString();
+    }
+}
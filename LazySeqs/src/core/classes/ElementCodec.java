@@ -0,0 +1,108 @@
+package core.classes;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * encodes and decodes elements of a variable size for Seq.writeBinary and Seq.readBinary.
+ * an element is encoded in its own range of bytes, the length of the range is stored by the format
+ * so the codec does not have to store it, the decoder uses the absolute get methods of the buffer
+ * that is in big endian
+ * */
+public interface ElementCodec<T> {
+    /**
+     * writes the bytes of value
+     * @param value T
+     * @param out DataOutput
+     * @throws IOException if out throws it
+     * */
+    void encode(T value, DataOutput out) throws IOException;
+
+    /**
+     * decodes the element stored in the length bytes starting at offset
+     * @param buffer ByteBuffer
+     * @param offset int
+     * @param length int
+     * @return T
+     * */
+    T decode(ByteBuffer buffer, int offset, int length);
+
+    /**
+     * codec of strings encoded in UTF-8
+     * */
+    ElementCodec<String> STRING = of((value, out) -> out.write(value.getBytes(StandardCharsets.UTF_8)), (buffer, offset, length) -> {
+        var bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    });
+
+    /**
+     * codec of int values, 4 bytes
+     * */
+    ElementCodec<Integer> INT = of(RecordCodec.INT);
+
+    /**
+     * codec of long values, 8 bytes
+     * */
+    ElementCodec<Long> LONG = of(RecordCodec.LONG);
+
+    /**
+     * codec of double values, 8 bytes
+     * */
+    ElementCodec<Double> DOUBLE = of(RecordCodec.DOUBLE);
+
+    /**
+     * writes the bytes of an element
+     * */
+    @FunctionalInterface
+    interface Encoder<T> {
+        void encode(T value, DataOutput out) throws IOException;
+    }
+
+    /**
+     * reads an element from a range of a buffer
+     * */
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(ByteBuffer buffer, int offset, int length);
+    }
+
+    /**
+     * creates a codec from two functions
+     * @param encoder Encoder<? super T>
+     * @param decoder Decoder<T>
+     * @return ElementCodec<T>
+     * */
+    static <T> ElementCodec<T> of(Encoder<? super T> encoder, Decoder<T> decoder) {
+        Objects.requireNonNull(encoder);
+        Objects.requireNonNull(decoder);
+        return new ElementCodec<>() {
+            @Override
+            public void encode(T value, DataOutput out) throws IOException {
+                encoder.encode(value, out);
+            }
+
+            @Override
+            public T decode(ByteBuffer buffer, int offset, int length) {
+                return decoder.decode(buffer, offset, length);
+            }
+        };
+    }
+
+    /**
+     * creates a codec that encodes the elements using a codec of fixed size records
+     * @param codec RecordCodec<T>
+     * @return ElementCodec<T>
+     * */
+    static <T> ElementCodec<T> of(RecordCodec<T> codec) {
+        Objects.requireNonNull(codec);
+        return of((value, out) -> {
+            var bytes = ByteBuffer.allocate(codec.width());
+            codec.write(bytes, 0, value);
+            out.write(bytes.array());
+        }, (buffer, offset, length) -> codec.read(buffer, offset));
+    }
+}
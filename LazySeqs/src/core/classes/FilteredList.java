@@ -0,0 +1,188 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * view of the elements of a list that satisfy a predicate.
+ * the list is scanned only as far as the highest index requested, the positions of the matching elements
+ * are recorded in an int[] so the next accesses to the scanned prefix do not test the predicate again.
+ * the spliterator scans the ranges that are not yet resolved in parallel, without recording them.
+ * the size of the list is never asked before it is known, so a list pulled from an iterator
+ * is only pulled as far as the elements needed
+ * */
+final class FilteredList<E> extends AbstractList<E> implements RandomAccess, IndexedSource {
+    // minimum number of elements of the list scanned by a split of the spliterator
+    private static final int MIN_SPLIT = 1024;
+
+    private final List<? extends E> list;
+    private final Predicate<Object> predicate;
+    // positions is published before count, so a reader that reads count first sees enough positions
+    private volatile int[] positions = new int[16];
+    private volatile int count;   // number of matching positions found
+    private volatile int scanned; // the elements before scanned have been tested
+
+    FilteredList(List<? extends E> list, Predicate<Object> predicate) {
+        this.list = list;
+        this.predicate = predicate;
+    }
+
+    /**
+     * returns true if there is a match at index, scans the list until it is found
+     * */
+    private boolean resolve(int index) {
+        if (index < count) {
+            return true;
+        }
+        synchronized (this) {
+            var positions = this.positions;
+            var count = this.count;
+            var scanned = this.scanned;
+            while (count <= index && IndexedSource.hasIndex(list, scanned)) {
+                if (predicate.test(list.get(scanned))) {
+                    if (count == positions.length) {
+                        positions = Arrays.copyOf(positions, (int) Math.min(2L * count, Integer.MAX_VALUE - 8));
+                    }
+                    positions[count++] = scanned;
+                }
+                scanned++;
+            }
+            this.positions = positions;
+            this.count = count;
+            this.scanned = scanned;
+            return index < count;
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || !resolve(index)) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + count);
+        }
+        return list.get(positions[index]);
+    }
+
+    @Override
+    public int size() {
+        resolve(Integer.MAX_VALUE);
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !resolve(0);
+    }
+
+    @Override
+    public boolean isSized() {
+        return IndexedSource.isSized(list) && scanned == list.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return resolve(index);
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return list.get(positions[index++]);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        if (!IndexedSource.isSized(list)) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+        }
+        var count = this.count;
+        return new Scan(positions, count, scanned, 0, list.size());
+    }
+
+    /**
+     * spliterator on the range [next, end) of the list, the part of the range already scanned
+     * is read from a snapshot of the positions, the rest is tested with the predicate
+     * */
+    private final class Scan implements Spliterator<E> {
+        private final int[] positions;
+        private final int count;
+        private final int scanned;
+        private final int end;
+        private int next;
+        private int k; // first position of the snapshot >= next
+
+        private Scan(int[] positions, int count, int scanned, int from, int end) {
+            this.positions = positions;
+            this.count = count;
+            this.scanned = scanned;
+            this.end = end;
+            this.next = from;
+            this.k = firstPosition(from);
+        }
+
+        private int firstPosition(int from) {
+            var index = Arrays.binarySearch(positions, 0, count, from);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            while (next < end) {
+                if (next < scanned) {
+                    if (k < count && positions[k] < end) {
+                        var position = positions[k++];
+                        next = position + 1;
+                        action.accept(list.get(position));
+                        return true;
+                    }
+                    next = Math.min(scanned, end);
+                    continue;
+                }
+                var element = list.get(next++);
+                if (predicate.test(element)) {
+                    action.accept(element);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (end - next < 2 * MIN_SPLIT) {
+                return null;
+            }
+            var mid = (next + end) >>> 1;
+            var prefix = new Scan(positions, count, scanned, next, mid);
+            next = mid;
+            k = firstPosition(mid);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * concatenation of the lazySeqs computed by function from the elements of a list.
+ * the list is expanded only as far as the highest index requested, ends[j] records the number
+ * of elements of the lazySeqs of the elements 0 to j so get(i) finds its element with a binary search
+ * and computes only its lazySeq. the spliterator expands the ranges in parallel.
+ * the size of the list is never asked before it is known, so a list pulled from an iterator
+ * is only pulled as far as the elements needed
+ * */
+final class FlatList<W> extends AbstractList<W> implements RandomAccess, IndexedSource {
+    // minimum number of elements of the list expanded by a split of the spliterator
+    private static final int MIN_SPLIT = 1024;
+
+    private final List<?> list;
+    private final Function<Object, ? extends Seq<? extends W>> function;
+    // ends is published before scanned, so a reader that reads scanned first sees enough ends
+    private volatile int[] ends = new int[16];
+    private volatile int scanned; // number of elements of the list expanded
+
+    FlatList(List<?> list, Function<Object, ? extends Seq<? extends W>> function) {
+        this.list = list;
+        this.function = function;
+    }
+
+    private Seq<? extends W> expand(int position) {
+        var seq = function.apply(list.get(position));
+        if (seq == null) {
+            throw new NullPointerException("the function returns null for the element " + position);
+        }
+        return seq;
+    }
+
+    private static int total(int[] ends, int scanned) {
+        return scanned == 0 ? 0 : ends[scanned - 1];
+    }
+
+    /**
+     * records the size of the lazySeq of the element at position if it is the next one
+     * */
+    private synchronized void record(int position, int size) {
+        var scanned = this.scanned;
+        if (position != scanned) {
+            return;
+        }
+        var ends = this.ends;
+        var total = (long) total(ends, scanned) + size;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the flatMap has more than Integer.MAX_VALUE elements");
+        }
+        if (scanned == ends.length) {
+            ends = Arrays.copyOf(ends, (int) Math.min(2L * scanned, Integer.MAX_VALUE - 8));
+        }
+        ends[scanned] = (int) total;
+        this.ends = ends;
+        this.scanned = scanned + 1;
+    }
+
+    /**
+     * returns true if there is an element at index, expands the list until it is found
+     * */
+    private boolean resolve(int index) {
+        var scanned = this.scanned;
+        if (index < total(ends, scanned)) {
+            return true;
+        }
+        synchronized (this) {
+            while (index >= total(ends, this.scanned) && IndexedSource.hasIndex(list, this.scanned)) {
+                record(this.scanned, expand(this.scanned).size());
+            }
+            return index < total(ends, this.scanned);
+        }
+    }
+
+    @Override
+    public W get(int index) {
+        if (index < 0 || !resolve(index)) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + total(ends, scanned));
+        }
+        var position = positionOf(index);
+        return expand(position).get(index - total(ends, position));
+    }
+
+    /**
+     * returns the position of the element of the list whose lazySeq contains index, index must be resolved
+     * */
+    private int positionOf(int index) {
+        var ends = this.ends;
+        var low = 0;
+        var high = scanned - 1;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (ends[mid] > index) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * splits on the start of a lazySeq so an element is not expanded by both halves
+     * */
+    @Override
+    public int splitPoint(int from, int to) {
+        var mid = (from + to) >>> 1;
+        if (!resolve(mid)) {
+            return mid;
+        }
+        var position = positionOf(mid);
+        var start = total(ends, position);
+        return start > from ? start : ends[position];
+    }
+
+    /**
+     * expands once each element of the list covering the range and walks its lazySeq,
+     * instead of expanding the element again for each index
+     * */
+    @Override
+    public void forEachInRange(int from, int to, Consumer<Object> action) {
+        if (from >= to || !resolve(to - 1)) {
+            return;
+        }
+        var ends = this.ends;
+        for (var position = positionOf(from); from < to; position++) {
+            var start = total(ends, position);
+            var end = Math.min(ends[position], to);
+            if (end > from) {
+                expand(position).subSeq(from - start, end - start).forEach(action::accept);
+                from = end;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        resolve(Integer.MAX_VALUE);
+        return total(ends, scanned);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !resolve(0);
+    }
+
+    @Override
+    public boolean isSized() {
+        return IndexedSource.isSized(list) && scanned == list.size();
+    }
+
+    @Override
+    public Iterator<W> iterator() {
+        return new Iterator<>() {
+            private int position;
+            private Iterator<? extends W> current;
+
+            @Override
+            public boolean hasNext() {
+                while (current == null || !current.hasNext()) {
+                    if (!IndexedSource.hasIndex(list, position)) {
+                        return false;
+                    }
+                    var seq = expand(position);
+                    record(position, seq.size());
+                    position++;
+                    current = seq.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public W next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<W> spliterator() {
+        if (!IndexedSource.isSized(list)) {
+            return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+        }
+        return new Expansion(0, list.size());
+    }
+
+    /**
+     * spliterator on the lazySeqs of the elements of the range [next, end) of the list
+     * */
+    private final class Expansion implements Spliterator<W> {
+        private final int end;
+        private int next;
+        private Iterator<? extends W> current;
+
+        private Expansion(int from, int end) {
+            this.next = from;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super W> action) {
+            while (current == null || !current.hasNext()) {
+                if (next == end) {
+                    return false;
+                }
+                current = expand(next++).iterator();
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<W> trySplit() {
+            if ((current != null && current.hasNext()) || end - next < 2 * MIN_SPLIT) {
+                return null;
+            }
+            var mid = (next + end) >>> 1;
+            var prefix = new Expansion(next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package core.classes;
+
+import java.util.function.Function;
+
+/**
+ * template of the code of a fused pipeline: up to four stages called one after the other by a single apply.
+ * this class is never instantiated as is, Pipeline defines a new hidden class from its bytecode
+ * for each node of a fused pipeline, so each copy of apply has its own call sites that only see
+ * the stages of one pipeline and can be inlined by the JIT.
+ * the class must not have static fields or lambdas, they would be duplicated in each copy
+ * */
+final class FusedStages implements Function<Object, Object> {
+    static final int WIDTH = 4;
+
+    private final Function<Object, Object> stage0;
+    private final Function<Object, Object> stage1;
+    private final Function<Object, Object> stage2;
+    private final Function<Object, Object> stage3;
+
+    FusedStages(Function<Object, Object> stage0, Function<Object, Object> stage1,
+                Function<Object, Object> stage2, Function<Object, Object> stage3) {
+        this.stage0 = stage0;
+        this.stage1 = stage1;
+        this.stage2 = stage2;
+        this.stage3 = stage3;
+    }
+
+    @Override
+    public Object apply(Object element) {
+        return stage3.apply(stage2.apply(stage1.apply(stage0.apply(element))));
+    }
+}
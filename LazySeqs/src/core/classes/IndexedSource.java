@@ -0,0 +1,126 @@
+package core.classes;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * optional hooks that a backing list of a lazySeq can implement
+ * to tell the lazySeq how to traverse it efficiently
+ * */
+interface IndexedSource {
+    /**
+     * returns the element at index, implemented by List.get
+     * @param index int
+     * @return Object
+     * */
+    Object get(int index);
+
+    /**
+     * returns the number of elements, implemented by List.size
+     * @return int
+     * */
+    int size();
+
+    /**
+     * returns true if there is an element at index, a list that is not sized overrides it
+     * to pull only the elements up to index instead of computing the size
+     * @param index int a positive index
+     * @return boolean
+     * */
+    default boolean hasIndex(int index) {
+        return index < size();
+    }
+
+    /**
+     * returns the index where the range [from, to) should be split by a spliterator,
+     * a value outside of ]from, to[ means that the range should not be split
+     * @param from int
+     * @param to int
+     * @return int
+     * */
+    default int splitPoint(int from, int to) {
+        return (from + to) >>> 1;
+    }
+
+    /**
+     * returns true if size() is known without pulling elements, if it is not the case
+     * the lazySeq traverses the list using its own spliterator()
+     * @return boolean
+     * */
+    default boolean isSized() {
+        return true;
+    }
+
+    /**
+     * calls action with the elements from index from (inclusive) to index to (exclusive) in order,
+     * used by the stream spliterator instead of calling get for each index
+     * @param from int
+     * @param to int
+     * @param action Consumer<Object>
+     * */
+    default void forEachInRange(int from, int to, Consumer<Object> action) {
+        for (var index = from; index < to; index++) {
+            action.accept(get(index));
+        }
+    }
+
+    /**
+     * returns true if the size of list is known without pulling elements
+     * @param list List<?>
+     * @return boolean
+     * */
+    static boolean isSized(List<?> list) {
+        return !(list instanceof IndexedSource) || ((IndexedSource) list).isSized();
+    }
+
+    /**
+     * returns true if list has an element at index, without computing the size of a list that is not sized
+     * @param list List<?>
+     * @param index int a positive index
+     * @return boolean
+     * */
+    static boolean hasIndex(List<?> list, int index) {
+        if (list instanceof IndexedSource) {
+            return ((IndexedSource) list).hasIndex(index);
+        }
+        return index < list.size();
+    }
+
+    /**
+     * returns an iterator on list that stops at the first index for which hasIndex returns false,
+     * used by the lists that are not sized instead of the iterator of AbstractList which asks the size
+     * @param list List<E>
+     * @return Iterator<E>
+     * */
+    static <E> Iterator<E> iterator(List<E> list) {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return hasIndex(list, index);
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return list.get(index++);
+            }
+        };
+    }
+
+    /**
+     * returns a spliterator of unknown size on iterator(list)
+     * @param list List<E>
+     * @return Spliterator<E>
+     * */
+    static <E> Spliterator<E> spliterator(List<E> list) {
+        return Spliterators.spliteratorUnknownSize(iterator(list), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+}
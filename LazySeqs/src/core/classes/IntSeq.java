@@ -0,0 +1,259 @@
+package core.classes;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * lazySeq of int values backed by an int[] or by a range of ints, the values are never boxed
+ * by get, forEach, iterator or stream
+ * */
+public class IntSeq {
+    private final int[] seq; // null if the IntSeq is a range
+    private final int start;
+    private final int size;
+    private final IntUnaryOperator mapper;
+
+    IntSeq(int[] seq, IntUnaryOperator mapper) {
+        this(seq, 0, seq.length, mapper);
+    }
+
+    private IntSeq(int[] seq, int start, int size, IntUnaryOperator mapper) {
+        this.seq = seq;
+        this.start = start;
+        this.size = size;
+        this.mapper = mapper;
+    }
+
+    /**
+     * creates a IntSeq from arbitrary values (varargs), the array is copied
+     * @param values int ...values
+     * @return IntSeq
+     * */
+    public static IntSeq of(int ...values) {
+        Objects.requireNonNull(values);
+        return new IntSeq(values.clone(), IntUnaryOperator.identity());
+    }
+
+    /**
+     * creates a IntSeq of the values from start (inclusive) to end (exclusive),
+     * the values are computed from the index so the IntSeq uses a constant amount of memory
+     * @param start int
+     * @param end int
+     * @return IntSeq
+     * @throws IllegalArgumentException if start > end or if the range has more than Integer.MAX_VALUE values
+     * */
+    public static IntSeq range(int start, int end) {
+        return new IntSeq(null, start, Seq.rangeSize(start, end), IntUnaryOperator.identity());
+    }
+
+    private int element(int i) {
+        if (seq == null) {
+            Objects.checkIndex(i, size);
+            return start + i;
+        }
+        return seq[i];
+    }
+
+    /**
+     * get a value by index from the IntSeq by applying the stored mapper function
+     * @param i int
+     * @return int
+     * */
+    public int get(int i) {return mapper.applyAsInt(element(i));}
+
+    /**
+     * returns the size of the IntSeq
+     * */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * return the first element of the IntSeq or OptionalInt.empty() if the IntSeq is empty
+     * @return OptionalInt
+     * */
+    public OptionalInt findFirst() {
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(mapper.applyAsInt(element(0)));
+    }
+
+    /**
+     * lazy implementation of map, the function is composed with the stored mapper
+     * @param function IntUnaryOperator
+     * @return IntSeq
+     * */
+    public IntSeq map(IntUnaryOperator function) {
+        Objects.requireNonNull(function);
+        return new IntSeq(seq, start, size, mapper.andThen(function));
+    }
+
+    /**
+     * lazily maps the values of the IntSeq to objects
+     * @param function IntFunction<? extends W>
+     * @return Seq<W>
+     * */
+    public <W> Seq<W> mapToObj(IntFunction<? extends W> function) {
+        Objects.requireNonNull(function);
+        return Seq.tabulate(size, i -> function.apply(get(i)));
+    }
+
+    /**
+     * returns a lazySeq of the boxed values, the values are boxed only when they are accessed
+     * @return Seq<Integer>
+     * */
+    public Seq<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * return an iterator of the IntSeq
+     * @return PrimitiveIterator.OfInt
+     * */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapper.applyAsInt(element(i++));
+            }
+        };
+    }
+
+    private Spliterator.OfInt spliterator(int start, int end) {
+        return new Spliterator.OfInt() {
+            private int i = start;
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                Objects.requireNonNull(action);
+                if (i == end) {
+                    return false;
+                }
+                action.accept(mapper.applyAsInt(element(i++)));
+                return true;
+            }
+
+            @Override
+            public Spliterator.OfInt trySplit() {
+                var mid = (i + end) >>> 1;
+                if (mid == i) {
+                    return null;
+                }
+                var split = spliterator(i, mid);
+                i = mid;
+                return split;
+            }
+
+            @Override
+            public long estimateSize() {
+                return end - i;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | IMMUTABLE | NONNULL | SIZED;
+            }
+        };
+    }
+
+    /**
+     * returns an IntStream of the IntSeq
+     * @return IntStream
+     * */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(0, size), false);
+    }
+
+    /**
+     * Performs the given action for each element of the IntSeq
+     * @param consumer IntConsumer
+     * @throws NullPointerException if consumer is null
+     * */
+    public void forEach(IntConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for (var i = 0; i < size; i++) {
+            consumer.accept(mapper.applyAsInt(element(i)));
+        }
+    }
+
+    /**
+     * returns the sum of the values of the IntSeq, the indexes are split in ranges
+     * summed in parallel on the fork/join pool
+     * the sum overflows as IntStream.sum does
+     * @return int
+     * */
+    public int sum() {
+        return RangeTask.invoke(size, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            int sum = 0;
+            for (var index = from; index < to; index++) {
+                sum += mapper.applyAsInt(element(index));
+            }
+            return sum;
+        }, (Integer left, Integer right) -> left + right);
+    }
+
+    /**
+     * returns the smallest value of the IntSeq, computed in parallel like sum()
+     * @return OptionalInt empty if the IntSeq is empty
+     * */
+    public OptionalInt min() {
+        return reduce(Math::min);
+    }
+
+    /**
+     * returns the biggest value of the IntSeq, computed in parallel like sum()
+     * @return OptionalInt empty if the IntSeq is empty
+     * */
+    public OptionalInt max() {
+        return reduce(Math::max);
+    }
+
+    private OptionalInt reduce(IntBinaryOperator operator) {
+        if (size == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(RangeTask.invoke(size, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            var index = from;
+            var result = mapper.applyAsInt(element(index));
+            for (index++; index < to; index++) {
+                result = operator.applyAsInt(result, mapper.applyAsInt(element(index)));
+            }
+            return result;
+        }, (Integer left, Integer right) -> operator.applyAsInt(left, right)));
+    }
+
+    /**
+     * return a string representing the IntSeq elements have a prefix "<" and suffix ">"
+     * separated by ", "
+     * @return String
+     * */
+    @Override
+    public String toString() {
+        var sj = new StringJoiner(", ", "<", ">");
+        for (var i = 0; i < size; i++) {
+            sj.add(String.valueOf(mapper.applyAsInt(element(i))));
+        }
+        return sj.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package core.classes;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * lazySeq of long values backed by a long[], the values are never boxed
+ * by get, forEach, iterator or stream
+ * */
+public class LongSeq {
+    private final long[] seq;
+    private final LongUnaryOperator mapper;
+
+    LongSeq(long[] seq, LongUnaryOperator mapper) {
+        this.seq = seq;
+        this.mapper = mapper;
+    }
+
+    /**
+     * creates a LongSeq from arbitrary values (varargs), the array is copied
+     * @param values long ...values
+     * @return LongSeq
+     * */
+    public static LongSeq of(long ...values) {
+        Objects.requireNonNull(values);
+        return new LongSeq(values.clone(), LongUnaryOperator.identity());
+    }
+
+    /**
+     * get a value by index from the LongSeq by applying the stored mapper function
+     * @param i int
+     * @return long
+     * */
+    public long get(int i) {return mapper.applyAsLong(seq[i]);}
+
+    /**
+     * returns the size of the LongSeq
+     * */
+    public int size() {
+        return seq.length;
+    }
+
+    /**
+     * return the first element of the LongSeq or OptionalLong.empty() if the LongSeq is empty
+     * @return OptionalLong
+     * */
+    public OptionalLong findFirst() {
+        if (seq.length == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(mapper.applyAsLong(seq[0]));
+    }
+
+    /**
+     * lazy implementation of map, the function is composed with the stored mapper
+     * @param function LongUnaryOperator
+     * @return LongSeq
+     * */
+    public LongSeq map(LongUnaryOperator function) {
+        Objects.requireNonNull(function);
+        return new LongSeq(seq, mapper.andThen(function));
+    }
+
+    /**
+     * lazily maps the values of the LongSeq to objects
+     * @param function LongFunction<? extends W>
+     * @return Seq<W>
+     * */
+    public <W> Seq<W> mapToObj(LongFunction<? extends W> function) {
+        Objects.requireNonNull(function);
+        return Seq.tabulate(seq.length, i -> function.apply(get(i)));
+    }
+
+    /**
+     * returns a lazySeq of the boxed values, the values are boxed only when they are accessed
+     * @return Seq<Long>
+     * */
+    public Seq<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * return an iterator of the LongSeq
+     * @return PrimitiveIterator.OfLong
+     * */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < seq.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return mapper.applyAsLong(seq[i++]);
+            }
+        };
+    }
+
+    private Spliterator.OfLong spliterator(int start, int end) {
+        return new Spliterator.OfLong() {
+            private int i = start;
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                Objects.requireNonNull(action);
+                if (i == end) {
+                    return false;
+                }
+                action.accept(mapper.applyAsLong(seq[i++]));
+                return true;
+            }
+
+            @Override
+            public Spliterator.OfLong trySplit() {
+                var mid = (i + end) >>> 1;
+                if (mid == i) {
+                    return null;
+                }
+                var split = spliterator(i, mid);
+                i = mid;
+                return split;
+            }
+
+            @Override
+            public long estimateSize() {
+                return end - i;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | IMMUTABLE | NONNULL | SIZED;
+            }
+        };
+    }
+
+    /**
+     * returns an LongStream of the LongSeq
+     * @return LongStream
+     * */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(0, seq.length), false);
+    }
+
+    /**
+     * Performs the given action for each element of the LongSeq
+     * @param consumer LongConsumer
+     * @throws NullPointerException if consumer is null
+     * */
+    public void forEach(LongConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        for (var e : seq) {
+            consumer.accept(mapper.applyAsLong(e));
+        }
+    }
+
+    /**
+     * returns the sum of the values of the LongSeq, the indexes are split in ranges
+     * summed in parallel on the fork/join pool
+     * @return long
+     * */
+    public long sum() {
+        return RangeTask.invoke(seq.length, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            long sum = 0;
+            for (var index = from; index < to; index++) {
+                sum += mapper.applyAsLong(seq[index]);
+            }
+            return sum;
+        }, (Long left, Long right) -> left + right);
+    }
+
+    /**
+     * returns the smallest value of the LongSeq, computed in parallel like sum()
+     * @return OptionalLong empty if the LongSeq is empty
+     * */
+    public OptionalLong min() {
+        return reduce(Math::min);
+    }
+
+    /**
+     * returns the biggest value of the LongSeq, computed in parallel like sum()
+     * @return OptionalLong empty if the LongSeq is empty
+     * */
+    public OptionalLong max() {
+        return reduce(Math::max);
+    }
+
+    private OptionalLong reduce(LongBinaryOperator operator) {
+        if (seq.length == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(RangeTask.invoke(seq.length, RangeTask.DEFAULT_THRESHOLD, null, (from, to) -> {
+            var index = from;
+            var result = mapper.applyAsLong(seq[index]);
+            for (index++; index < to; index++) {
+                result = operator.applyAsLong(result, mapper.applyAsLong(seq[index]));
+            }
+            return result;
+        }, (Long left, Long right) -> operator.applyAsLong(left, right)));
+    }
+
+    /**
+     * return a string representing the LongSeq elements have a prefix "<" and suffix ">"
+     * separated by ", "
+     * @return String
+     * */
+    @Override
+    public String toString() {
+        var sj = new StringJoiner(", ", "<", ">");
+        for (var v : seq) {
+            sj.add(String.valueOf(mapper.applyAsLong(v)));
+        }
+        return sj.toString();
+    }
+}
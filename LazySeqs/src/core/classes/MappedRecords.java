@@ -0,0 +1,84 @@
+package core.classes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * read only list of fixed size records decoded on demand from a memory-mapped file.
+ * the file is mapped in chunks of at most MAX_CHUNK_BYTES (a MappedByteBuffer is indexed by an int)
+ * and the split points are aligned on page boundaries so parallel traversals read disjoint pages
+ * */
+final class MappedRecords<T> extends AbstractList<T> implements RandomAccess, IndexedSource {
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final int PAGE_SIZE = 4096;
+
+    private final RecordCodec<T> codec;
+    private final ByteBuffer[] chunks;
+    private final int width;
+    private final int perChunk;
+    private final int size;
+    private final int recordsPerPages; // the smallest number of records that fills whole pages
+
+    private MappedRecords(RecordCodec<T> codec, ByteBuffer[] chunks, int perChunk, int size) {
+        this.codec = codec;
+        this.chunks = chunks;
+        this.width = codec.width();
+        this.perChunk = perChunk;
+        this.size = size;
+        this.recordsPerPages = PAGE_SIZE / gcd(PAGE_SIZE, width);
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    static <T> MappedRecords<T> map(Path path, RecordCodec<T> codec, ByteOrder order) throws IOException {
+        var width = codec.width();
+        if (width > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("width too big " + width);
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var bytes = channel.size();
+            if (bytes % width != 0) {
+                throw new IllegalArgumentException("the file size " + bytes + " is not a multiple of the record width " + width);
+            }
+            var records = bytes / width;
+            if (records > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("too many records " + records);
+            }
+            var perChunk = MAX_CHUNK_BYTES / width;
+            var chunks = new ByteBuffer[(int) ((records + perChunk - 1) / perChunk)];
+            for (var chunk = 0; chunk < chunks.length; chunk++) {
+                var position = (long) chunk * perChunk * width;
+                var length = Math.min((long) perChunk * width, bytes - position);
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(order);
+            }
+            return new MappedRecords<>(codec, chunks, perChunk, (int) records);
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return codec.read(chunks[index / perChunk], (index % perChunk) * width);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int splitPoint(int from, int to) {
+        var mid = (from + to) >>> 1;
+        var aligned = mid - mid % recordsPerPages;
+        return aligned > from ? aligned : mid;
+    }
+}
@@ -0,0 +1,283 @@
+package core.classes;
+
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * describes how a memoized lazySeq keeps the values computed by its mapper
+ * <ul>
+ *     <li>{@link #full()} keeps every computed value, the mapper runs at most once per index</li>
+ *     <li>{@link #window(int)} keeps a bounded number of values, older ones are evicted using a clock</li>
+ *     <li>{@link #soft()} keeps every value behind a SoftReference so the GC can reclaim them</li>
+ * </ul>
+ * all the caches are lock-free, when two threads compute the same index concurrently
+ * only one value is published and both threads get that value.
+ * */
+public final class MemoPolicy {
+    private enum Kind { FULL, WINDOW, SOFT }
+
+    private final Kind kind;
+    private final int capacity;
+
+    private MemoPolicy(Kind kind, int capacity) {
+        this.kind = kind;
+        this.capacity = capacity;
+    }
+
+    /**
+     * caches every value computed by the mapper
+     * @return MemoPolicy
+     * */
+    public static MemoPolicy full() {
+        return new MemoPolicy(Kind.FULL, 0);
+    }
+
+    /**
+     * caches at most capacity values (rounded up to a multiple of 4), the entries that were not
+     * used recently are evicted first
+     * @param capacity int
+     * @return MemoPolicy
+     * @throws IllegalArgumentException if capacity is not positive
+     * */
+    public static MemoPolicy window(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive " + capacity);
+        }
+        return new MemoPolicy(Kind.WINDOW, capacity);
+    }
+
+    /**
+     * caches every value computed by the mapper behind a SoftReference
+     * @return MemoPolicy
+     * */
+    public static MemoPolicy soft() {
+        return new MemoPolicy(Kind.SOFT, 0);
+    }
+
+    <T> Cache<T> cache(Seq<T> upstream) {
+        switch (kind) {
+            case FULL:
+                return new Full<>(upstream);
+            case WINDOW:
+                return new Window<>(upstream, capacity);
+            case SOFT:
+                return new Soft<>(upstream);
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.WINDOW ? "window(" + capacity + ")" : kind.name().toLowerCase();
+    }
+
+    /**
+     * backing list of a memoized lazySeq, get(i) computes upstream.get(i) only if the value is not cached.
+     * the size of upstream is never asked before it is known, so a source pulled from an iterator
+     * is only pulled as far as the elements requested
+     * */
+    static abstract class Cache<T> extends AbstractList<T> implements RandomAccess, IndexedSource {
+        // the caches use null as "not computed yet", so a null value computed by the mapper is masked
+        private static final Object NULL = new Object();
+
+        final Seq<T> upstream;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        Cache(Seq<T> upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public int size() {
+            return upstream.size();
+        }
+
+        @Override
+        public boolean isSized() {
+            return upstream.isSized();
+        }
+
+        @Override
+        public boolean hasIndex(int index) {
+            return upstream.hasIndex(index);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return isSized() ? super.iterator() : IndexedSource.iterator(this);
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return isSized() ? super.spliterator() : IndexedSource.spliterator(this);
+        }
+
+        final void checkIndex(int index) {
+            if (index < 0 || !upstream.hasIndex(index)) {
+                throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size());
+            }
+        }
+
+        final Object compute(int index) {
+            misses.increment();
+            var value = upstream.get(index);
+            return value == null ? NULL : value;
+        }
+
+        final void hit() {
+            hits.increment();
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> T unmask(Object value) {
+            return value == NULL ? null : (T) value;
+        }
+
+        MemoStats stats() {
+            return new MemoStats(hits.sum(), misses.sum());
+        }
+    }
+
+    private static final class Full<T> extends Cache<T> {
+        private final PagedArray<Object> values = new PagedArray<>();
+
+        Full(Seq<T> upstream) {
+            super(upstream);
+        }
+
+        @Override
+        public T get(int index) {
+            // a value is only cached at a valid index, so the index is checked only on a miss
+            var value = values.get(index);
+            if (value != null) {
+                hit();
+                return unmask(value);
+            }
+            checkIndex(index);
+            var computed = compute(index);
+            var witness = values.compareAndExchange(index, null, computed);
+            return unmask(witness == null ? computed : witness);
+        }
+    }
+
+    private static final class Soft<T> extends Cache<T> {
+        private final PagedArray<SoftReference<Object>> values = new PagedArray<>();
+
+        Soft(Seq<T> upstream) {
+            super(upstream);
+        }
+
+        @Override
+        public T get(int index) {
+            var ref = values.get(index);
+            var value = ref == null ? null : ref.get();
+            if (value != null) {
+                hit();
+                return unmask(value);
+            }
+            checkIndex(index);
+            var computed = compute(index);
+            var newRef = new SoftReference<>(computed);
+            for (;;) {
+                var witness = values.compareAndExchange(index, ref, newRef);
+                if (witness == ref) {
+                    return unmask(computed);
+                }
+                // another thread published first, use its value if the GC did not clear it yet
+                var published = witness == null ? null : witness.get();
+                if (published != null) {
+                    return unmask(published);
+                }
+                ref = witness;
+            }
+        }
+    }
+
+    /**
+     * set-associative cache with a clock (second chance) eviction per set,
+     * consecutive indexes go to different sets so a sliding traversal keeps the last capacity values.
+     * each set is an immutable array of WAYS entries replaced as a whole by CAS,
+     * so two threads that miss the same index cannot publish it in two different slots
+     * */
+    private static final class Window<T> extends Cache<T> {
+        private static final int WAYS = 4;
+
+        private static final class Entry {
+            private final int index;
+            private final Object value;
+
+            private Entry(int index, Object value) {
+                this.index = index;
+                this.value = value;
+            }
+        }
+
+        private final AtomicReferenceArray<Entry[]> sets;
+        private final AtomicIntegerArray referenced;
+        private final AtomicIntegerArray hands;
+
+        Window(Seq<T> upstream, int capacity) {
+            super(upstream);
+            var count = (capacity + WAYS - 1) / WAYS;
+            this.sets = new AtomicReferenceArray<>(count);
+            this.referenced = new AtomicIntegerArray(count * WAYS);
+            this.hands = new AtomicIntegerArray(count);
+        }
+
+        private Entry lookup(Entry[] ways, int base, int index) {
+            if (ways == null) {
+                return null;
+            }
+            for (var way = 0; way < WAYS; way++) {
+                var entry = ways[way];
+                if (entry != null && entry.index == index) {
+                    referenced.set(base + way, 1);
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private int victim(Entry[] ways, int set, int base) {
+            for (;;) {
+                var way = hands.getAndIncrement(set) & (WAYS - 1);
+                if (ways == null || ways[way] == null || !referenced.compareAndSet(base + way, 1, 0)) {
+                    return way;
+                }
+            }
+        }
+
+        @Override
+        public T get(int index) {
+            checkIndex(index);
+            var set = index % sets.length();
+            var base = set * WAYS;
+            var cached = lookup(sets.get(set), base, index);
+            if (cached != null) {
+                hit();
+                return unmask(cached.value);
+            }
+            var entry = new Entry(index, compute(index));
+            for (;;) {
+                var ways = sets.get(set);
+                var published = lookup(ways, base, index);
+                if (published != null) {
+                    return unmask(published.value);
+                }
+                var newWays = ways == null ? new Entry[WAYS] : ways.clone();
+                newWays[victim(ways, set, base)] = entry;
+                if (sets.compareAndSet(set, ways, newWays)) {
+                    return unmask(entry.value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package core.classes;
+
+/**
+ * hit and miss counters of a memoized lazySeq, a miss is a call to the mapper
+ * */
+public final class MemoStats {
+    private final long hits;
+    private final long misses;
+
+    MemoStats(long hits, long misses) {
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * returns the number of values served from the cache
+     * @return long
+     * */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * returns the number of values computed by the mapper
+     * @return long
+     * */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * returns hits / (hits + misses) or 0 if nothing was requested
+     * @return double
+     * */
+    public double hitRate() {
+        var total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MemoStats)) {
+            return false;
+        }
+        var stats = (MemoStats) o;
+        return hits == stats.hits && misses == stats.misses;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hits) * 31 + Long.hashCode(misses);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses;
+    }
+}
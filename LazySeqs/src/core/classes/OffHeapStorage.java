@@ -0,0 +1,50 @@
+package core.classes;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * fixed size elements stored outside of the java heap in direct ByteBuffers.
+ * a ByteBuffer is indexed by an int so the elements are split in chunks of at most
+ * MAX_CHUNK_BYTES bytes, each chunk storing the same number of elements
+ * */
+final class OffHeapStorage<T> {
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private final RecordCodec<T> codec;
+    private final ByteBuffer[] chunks;
+    private final int width;
+    private final int perChunk;
+    private final long size;
+
+    OffHeapStorage(RecordCodec<T> codec, long size) {
+        this.codec = codec;
+        this.width = codec.width();
+        if (width > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("width too big " + width);
+        }
+        this.perChunk = MAX_CHUNK_BYTES / width;
+        this.size = size;
+        var count = (int) ((size + perChunk - 1) / perChunk);
+        this.chunks = new ByteBuffer[count];
+        for (var chunk = 0; chunk < count; chunk++) {
+            var elements = Math.min(perChunk, size - (long) chunk * perChunk);
+            chunks[chunk] = ByteBuffer.allocateDirect((int) elements * width).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    T get(long index) {
+        Objects.checkIndex(index, size);
+        return codec.read(chunks[(int) (index / perChunk)], (int) (index % perChunk) * width);
+    }
+
+    void set(long index, T value) {
+        Objects.checkIndex(index, size);
+        codec.write(chunks[(int) (index / perChunk)], (int) (index % perChunk) * width, value);
+    }
+}
@@ -0,0 +1,57 @@
+package core.classes;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * array of atomic references allocated by pages of PAGE_SIZE elements the first time one of them is written,
+ * so the caches of a lazySeq do not need its size, which can be unknown for a source pulled from an iterator.
+ * the pages are created under the lock of the array, the elements are read and written lock-free
+ * and a value written in a page is never lost when the table of pages grows, only the references to the pages are copied
+ * */
+final class PagedArray<E> {
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private volatile Object[] pages = new Object[4];
+
+    /**
+     * returns the element at index, null if it was never written
+     * */
+    @SuppressWarnings("unchecked")
+    E get(int index) {
+        var pages = this.pages;
+        var number = index >>> PAGE_SHIFT;
+        if (number >= pages.length) {
+            return null;
+        }
+        var page = (AtomicReferenceArray<E>) pages[number];
+        return page == null ? null : page.get(index & (PAGE_SIZE - 1));
+    }
+
+    /**
+     * same as AtomicReferenceArray.compareAndExchange
+     * */
+    E compareAndExchange(int index, E expected, E value) {
+        return page(index >>> PAGE_SHIFT).compareAndExchange(index & (PAGE_SIZE - 1), expected, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<E> page(int number) {
+        var pages = this.pages;
+        if (number < pages.length && pages[number] != null) {
+            return (AtomicReferenceArray<E>) pages[number];
+        }
+        synchronized (this) {
+            pages = this.pages;
+            if (number >= pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(number + 1, pages.length * 2));
+            }
+            if (pages[number] == null) {
+                pages[number] = new AtomicReferenceArray<E>(PAGE_SIZE);
+            }
+            this.pages = pages;
+            return (AtomicReferenceArray<E>) pages[number];
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package core.classes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * the chain of map functions of a lazySeq, stored as a flat array of stages instead of nested
+ * Function.andThen calls, so a deep chain does not recurse through andThen frames
+ * and the call site in Seq only ever sees this class.
+ * a pipeline without stages returns the element as is, there is no identity function to call.
+ * a pipeline of two stages or more applied FUSE_THRESHOLD times is fused: its stages are grouped
+ * in a tree of copies of FusedStages, each copy being its own hidden class, so each stage is called
+ * from a call site of its own instead of the call site of the loop shared by every pipeline,
+ * the JIT can inline the stages and the cost per element stays flat when the depth grows.
+ * until then, or if the hidden classes can not be defined, the stages are called in a loop
+ * */
+final class Pipeline<T> implements Function<Object, T> {
+    private static final Pipeline<?> IDENTITY = new Pipeline<>(stages(0));
+    // number of calls to apply before a pipeline is fused
+    private static final int FUSE_THRESHOLD = 1024;
+    // deeper pipelines are not fused, to bound the number of hidden classes of a pipeline
+    private static final int MAX_FUSED_LENGTH = 64;
+    private static final Function<Object, Object> PASS = element -> element;
+
+    private final Function<Object, Object>[] stages;
+    // first two stages are kept in fields so short chains do not index the array
+    private final Function<Object, Object> first;
+    private final Function<Object, Object> second;
+    // number of map stages, the stages inside an overlay included
+    private final int depth;
+    // racy but safe, the fused nodes only have final fields, at worst two threads fuse the pipeline
+    private Function<Object, Object> fused;
+    private int calls;
+
+    private Pipeline(Function<Object, Object>[] stages) {
+        this.stages = stages;
+        this.first = stages.length > 0 ? stages[0] : null;
+        this.second = stages.length > 1 ? stages[1] : null;
+        var depth = 0;
+        for (var stage : stages) {
+            depth += stage instanceof Overlay ? ((Overlay<?>) stage).inner.depth : 1;
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * returns a new array of length stages, the only place where a generic array is created
+     * */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object>[] stages(int length) {
+        return (Function<Object, Object>[]) new Function<?, ?>[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Pipeline<T> identity() {
+        return (Pipeline<T>) IDENTITY;
+    }
+
+    /**
+     * returns a pipeline with a single stage, or the function itself if it is already a pipeline
+     * */
+    @SuppressWarnings("unchecked")
+    static <T> Pipeline<T> of(Function<Object, T> function) {
+        Objects.requireNonNull(function);
+        if (function instanceof Pipeline) {
+            return (Pipeline<T>) function;
+        }
+        var stages = stages(1);
+        stages[0] = (Function<Object, Object>) function;
+        return new Pipeline<>(stages);
+    }
+
+    /**
+     * returns a new pipeline with function appended as last stage
+     * */
+    @SuppressWarnings("unchecked")
+    <W> Pipeline<W> then(Function<? super T, ? extends W> function) {
+        var newStages = Arrays.copyOf(stages, stages.length + 1);
+        newStages[stages.length] = (Function<Object, Object>) function;
+        return new Pipeline<>(newStages);
+    }
+
+    /**
+     * returns the overlay of this pipeline, so values already computed can be stored next to
+     * the elements that still have to go through this pipeline
+     * */
+    @SuppressWarnings("unchecked")
+    Overlay<T> overlay() {
+        if (stages.length == 1 && first instanceof Overlay) {
+            return (Overlay<T>) first;
+        }
+        return new Overlay<>(this);
+    }
+
+    /**
+     * stage that returns as is the values wrapped by this overlay and
+     * applies the inner pipeline to the other elements
+     * */
+    static final class Overlay<T> implements Function<Object, T> {
+        private final Pipeline<T> inner;
+
+        private Overlay(Pipeline<T> inner) {
+            this.inner = inner;
+        }
+
+        private static final class Computed {
+            private final Overlay<?> owner;
+            private final Object value;
+
+            private Computed(Overlay<?> owner, Object value) {
+                this.owner = owner;
+                this.value = value;
+            }
+        }
+
+        Object wrap(T value) {
+            return new Computed(this, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T apply(Object element) {
+            if (element instanceof Computed && ((Computed) element).owner == this) {
+                return (T) ((Computed) element).value;
+            }
+            return inner.apply(element);
+        }
+    }
+
+    /**
+     * returns a pipeline whose stages report their calls to probe
+     * */
+    Pipeline<T> instrument(Probe probe) {
+        var newStages = stages(stages.length);
+        for (var i = 0; i < stages.length; i++) {
+            newStages[i] = probe.stage(i, stages[i]);
+        }
+        return new Pipeline<>(newStages);
+    }
+
+    boolean isIdentity() {
+        return stages.length == 0;
+    }
+
+    /**
+     * returns the number of map stages of this pipeline, the stages hidden in an overlay included,
+     * so the stages of an instrumented lazySeq keep their position after with, append...
+     * */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * the bytecode of FusedStages, loaded the first time a pipeline is fused
+     * */
+    private static final class Template {
+        private static final byte[] BYTECODE = load();
+
+        private static byte[] load() {
+            try (var input = FusedStages.class.getResourceAsStream(FusedStages.class.getSimpleName() + ".class")) {
+                if (input == null) {
+                    throw new IllegalStateException("bytecode of FusedStages not found");
+                }
+                return input.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * returns a function that calls the stages in order, a tree whose nodes call FusedStages.WIDTH
+     * stages or nodes, each node is an instance of its own hidden class
+     * */
+    static Function<Object, Object> fuse(Function<Object, Object>[] stages) {
+        var nodes = stages;
+        do {
+            var width = FusedStages.WIDTH;
+            var parents = stages((nodes.length + width - 1) / width);
+            for (var i = 0; i < parents.length; i++) {
+                parents[i] = node(Arrays.copyOfRange(nodes, i * width, Math.min(nodes.length, i * width + width)));
+            }
+            nodes = parents;
+        } while (nodes.length > 1);
+        return nodes[0];
+    }
+
+    private static Function<Object, Object> node(Function<Object, Object>[] stages) {
+        var padded = Arrays.copyOf(stages, FusedStages.WIDTH);
+        Arrays.fill(padded, stages.length, padded.length, PASS);
+        try {
+            var lookup = MethodHandles.lookup().defineHiddenClass(Template.BYTECODE, true);
+            var constructor = lookup.findConstructor(lookup.lookupClass(),
+                MethodType.methodType(void.class, Function.class, Function.class, Function.class, Function.class));
+            @SuppressWarnings("unchecked")
+            var node = (Function<Object, Object>) constructor.invoke(padded[0], padded[1], padded[2], padded[3]);
+            return node;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T apply(Object element) {
+        var fused = this.fused;
+        if (fused != null) {
+            return (T) fused.apply(element);
+        }
+        if (stages.length > 1 && stages.length <= MAX_FUSED_LENGTH && ++calls == FUSE_THRESHOLD) {
+            try {
+                this.fused = fuse(stages);
+            } catch (RuntimeException | LinkageError e) {
+                // the hidden classes can not be defined, keep calling the stages in a loop
+            }
+        }
+        switch (stages.length) {
+            case 0:
+                return (T) element;
+            case 1:
+                return (T) first.apply(element);
+            case 2:
+                return (T) second.apply(first.apply(element));
+            default:
+                var value = element;
+                for (var stage : stages) {
+                    value = stage.apply(value);
+                }
+                return (T) value;
+        }
+    }
+}
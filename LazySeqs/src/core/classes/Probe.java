@@ -0,0 +1,197 @@
+package core.classes;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * counters of an instrumented lazySeq, shared by all the lazySeqs derived from it by map, subSeq...
+ * a lazySeq that is not instrumented has no probe, so the only cost is a null check.
+ * the stage counters are keyed by the position of the stage in the pipeline, so mapping the same
+ * lazySeq many times reuses the counters of that position instead of adding new ones
+ * */
+final class Probe {
+    // one call of a stage out of SAMPLE_PERIOD is timed
+    private static final int SAMPLE_PERIOD = 64;
+
+    private static final SeqMetrics.EntryPoint[] ENTRY_POINTS = SeqMetrics.EntryPoint.values();
+
+    @Name("core.classes.SeqTraversal")
+    @Label("Seq Traversal")
+    @Category("LazySeq")
+    @Description("A traversal of an instrumented lazySeq")
+    static final class TraversalEvent extends Event {
+        @Label("Seq")
+        String seq;
+
+        @Label("Entry Point")
+        String entryPoint;
+
+        @Label("Elements")
+        long elements;
+    }
+
+    @Name("core.classes.SeqStage")
+    @Label("Seq Map Stage")
+    @Category("LazySeq")
+    @Description("A sampled call of a map stage of an instrumented lazySeq")
+    static final class StageEvent extends Event {
+        @Label("Seq")
+        String seq;
+
+        @Label("Stage")
+        int stage;
+    }
+
+    private final String name;
+    private final LongAdder[] traversals;
+    private final ConcurrentSkipListMap<Integer, Counters> stages;
+    // position of the first stage of the pipeline using this probe
+    private final int offset;
+
+    Probe(String name) {
+        this.name = name;
+        this.traversals = new LongAdder[ENTRY_POINTS.length];
+        this.stages = new ConcurrentSkipListMap<>();
+        this.offset = 0;
+        for (var i = 0; i < traversals.length; i++) {
+            traversals[i] = new LongAdder();
+        }
+    }
+
+    private Probe(Probe probe, int offset) {
+        this.name = probe.name;
+        this.traversals = probe.traversals;
+        this.stages = probe.stages;
+        this.offset = offset;
+    }
+
+    /**
+     * returns a probe sharing the same counters whose stages are numbered after the depth first stages of this probe,
+     * used by the lazySeqs that start a new pipeline on top of an instrumented one (flatMap, memoize...)
+     * */
+    Probe after(int depth) {
+        return new Probe(this, offset + depth);
+    }
+
+    /**
+     * counts a call of an entry point and emits an instant JFR event for the traversals
+     * */
+    void enter(SeqMetrics.EntryPoint entryPoint) {
+        traversals[entryPoint.ordinal()].increment();
+        if (entryPoint != SeqMetrics.EntryPoint.GET) {
+            var event = new TraversalEvent();
+            if (event.shouldCommit()) {
+                event.seq = name;
+                event.entryPoint = entryPoint.name();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * starts a JFR event for a traversal whose duration is known (forEach, toString), null if the event is disabled
+     * */
+    TraversalEvent begin(SeqMetrics.EntryPoint entryPoint) {
+        traversals[entryPoint.ordinal()].increment();
+        var event = new TraversalEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.seq = name;
+        event.entryPoint = entryPoint.name();
+        event.begin();
+        return event;
+    }
+
+    static void end(TraversalEvent event, long elements) {
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.elements = elements;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * returns the function wrapped in a stage that counts its calls and times a sample of them
+     * */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    <A, B> Function<A, B> stage(int index, Function<A, B> function) {
+        var position = offset + index;
+        var counters = stages.computeIfAbsent(position, Counters::new);
+        return (Function) new Stage(counters, (Function) function);
+    }
+
+    private static final class Counters {
+        private final int index;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder sampled = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Counters(int index) {
+            this.index = index;
+        }
+
+        private SeqMetrics.StageMetrics snapshot() {
+            return new SeqMetrics.StageMetrics(index, invocations.sum(), sampled.sum(), sampledNanos.sum(), maxNanos.get());
+        }
+    }
+
+    private final class Stage implements Function<Object, Object> {
+        private final Counters counters;
+        private final Function<Object, Object> function;
+
+        private Stage(Counters counters, Function<Object, Object> function) {
+            this.counters = counters;
+            this.function = function;
+        }
+
+        @Override
+        public Object apply(Object element) {
+            counters.invocations.increment();
+            if (ThreadLocalRandom.current().nextInt(SAMPLE_PERIOD) != 0) {
+                return function.apply(element);
+            }
+            var event = new StageEvent();
+            event.begin();
+            var start = System.nanoTime();
+            var result = function.apply(element);
+            var nanos = System.nanoTime() - start;
+            event.end();
+            counters.sampled.increment();
+            counters.sampledNanos.add(nanos);
+            counters.maxNanos.accumulate(nanos);
+            if (event.shouldCommit()) {
+                event.seq = name;
+                event.stage = counters.index;
+                event.commit();
+            }
+            return result;
+        }
+    }
+
+    SeqMetrics snapshot() {
+        var counts = new EnumMap<SeqMetrics.EntryPoint, Long>(SeqMetrics.EntryPoint.class);
+        for (var entryPoint : ENTRY_POINTS) {
+            counts.put(entryPoint, traversals[entryPoint.ordinal()].sum());
+        }
+        var snapshots = new ArrayList<SeqMetrics.StageMetrics>();
+        for (var counters : stages.values()) {
+            snapshots.add(counters.snapshot());
+        }
+        return new SeqMetrics(name, counts, snapshots);
+    }
+}
@@ -0,0 +1,188 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * list that pulls its elements from an iterator by chunks of chunkSize elements,
+ * only when an index or a traversal needs them.
+ * the size is only known once the iterator is exhausted, so size() pulls every remaining element.
+ * in single pass mode, the chunks already traversed by an iterator are released
+ * and can not be accessed anymore, the table of chunks is compacted when it is full
+ * so its length depends on the number of chunks still alive, not on the number of elements pulled.
+ * the elements are indexed by an int, so pulling more than Integer.MAX_VALUE elements fails
+ * with an IllegalStateException, even in single pass mode.
+ * reads of the elements already pulled are lock-free, pulling is done under the lock of the list
+ * */
+final class PulledList<T> extends AbstractList<T> implements RandomAccess, IndexedSource {
+    private final Iterator<? extends T> source;
+    private final int chunkSize;
+    private final boolean singlePass;
+    private final Runnable onExhausted;
+
+    /**
+     * the chunks still alive, chunks[0] is the chunk number first
+     * */
+    private static final class Table {
+        private final int first;
+        private final Object[][] chunks;
+
+        private Table(int first, Object[][] chunks) {
+            this.first = first;
+            this.chunks = chunks;
+        }
+    }
+
+    // table is always written before loaded, so a reader that reads loaded then table sees the elements
+    private volatile Table table = new Table(0, new Object[4][]);
+    private volatile int loaded;
+    private volatile boolean exhausted;
+
+    PulledList(Iterator<? extends T> source, int chunkSize, boolean singlePass, Runnable onExhausted) {
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.singlePass = singlePass;
+        this.onExhausted = onExhausted;
+    }
+
+    private synchronized void pullUntil(int count) {
+        while (loaded < count && !exhausted) {
+            var chunk = new Object[chunkSize];
+            var length = 0;
+            while (length < chunkSize && source.hasNext()) {
+                chunk[length++] = Objects.requireNonNull(source.next());
+            }
+            if (length < chunkSize) {
+                exhausted = true;
+                onExhausted.run();
+                if (length == 0) {
+                    return;
+                }
+            }
+            if (length > Integer.MAX_VALUE - loaded) {
+                throw new IllegalStateException("more than Integer.MAX_VALUE elements");
+            }
+            var current = table;
+            var index = loaded / chunkSize - current.first;
+            if (index == current.chunks.length) {
+                current = grow(current);
+                index = loaded / chunkSize - current.first;
+            }
+            current.chunks[index] = chunk;
+            table = current;
+            loaded += length;
+        }
+    }
+
+    /**
+     * returns a table with room for one more chunk, in single pass mode the released chunks
+     * at the start of the table are dropped instead of doubling the table if that frees enough room
+     * */
+    private Table grow(Table current) {
+        var chunks = current.chunks;
+        var released = 0;
+        if (singlePass) {
+            while (released < chunks.length && chunks[released] == null) {
+                released++;
+            }
+        }
+        var alive = chunks.length - released;
+        var length = alive < chunks.length / 2 ? chunks.length : chunks.length * 2;
+        return new Table(current.first + released, Arrays.copyOfRange(chunks, released, released + length));
+    }
+
+    private synchronized void release(int chunkIndex) {
+        var current = table;
+        var index = chunkIndex - current.first;
+        if (index >= 0) {
+            current.chunks[index] = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= loaded) {
+            pullUntil(index + 1);
+            if (index >= loaded) {
+                throw new IndexOutOfBoundsException(index);
+            }
+        }
+        var current = table;
+        var position = index / chunkSize - current.first;
+        var chunk = position < 0 ? null : current.chunks[position];
+        if (chunk == null) {
+            throw new IllegalStateException("element " + index + " was already released by a single pass traversal");
+        }
+        return (T) chunk[index % chunkSize];
+    }
+
+    @Override
+    public int size() {
+        pullUntil(Integer.MAX_VALUE);
+        return loaded;
+    }
+
+    @Override
+    public boolean hasIndex(int index) {
+        if (index < loaded) {
+            return true;
+        }
+        pullUntil(index + 1);
+        return index < loaded;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        pullUntil(1);
+        return loaded == 0;
+    }
+
+    @Override
+    public boolean isSized() {
+        return exhausted;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                if (i < loaded) {
+                    return true;
+                }
+                pullUntil(i + 1);
+                return i < loaded;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var element = get(i++);
+                if (singlePass && i % chunkSize == 0) {
+                    release(i / chunkSize - 1);
+                }
+                return element;
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+            Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+}
@@ -0,0 +1,85 @@
+package core.classes;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * fork/join task that computes a result for a range of indexes, the range is split in two halves
+ * until it has less than threshold elements, each leaf is computed sequentially
+ * and the results are combined in the order of the indexes
+ * */
+final class RangeTask<A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+
+    // default number of elements under which a range is not split
+    static final int DEFAULT_THRESHOLD = 4096;
+
+    /**
+     * sequential computation of the range from (inclusive) to (exclusive)
+     * */
+    @FunctionalInterface
+    interface Leaf<A> {
+        A compute(int from, int to);
+    }
+
+    private final IndexedSource source; // null if the split points are the middles
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final Leaf<A> leaf;
+    private final BinaryOperator<A> combiner;
+
+    private RangeTask(IndexedSource source, int from, int to, int threshold, Leaf<A> leaf, BinaryOperator<A> combiner) {
+        this.source = source;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.leaf = leaf;
+        this.combiner = combiner;
+    }
+
+    /**
+     * computes the result of the range [0, size), the range is computed on the calling thread
+     * without using the fork/join pool if it has at most threshold elements
+     * @param size int
+     * @param threshold int
+     * @param source IndexedSource the split points, or null
+     * @param leaf Leaf<A>
+     * @param combiner BinaryOperator<A> combines the results of two adjacent ranges, left first
+     * @return A
+     * */
+    static <A> A invoke(int size, int threshold, IndexedSource source, Leaf<A> leaf, BinaryOperator<A> combiner) {
+        return invoke(null, size, threshold, source, leaf, combiner);
+    }
+
+    /**
+     * same as invoke(size, threshold, source, leaf, combiner) but the tasks run on pool,
+     * or on the pool of the calling thread (the common pool by default) if pool is null
+     * */
+    static <A> A invoke(ForkJoinPool pool, int size, int threshold, IndexedSource source, Leaf<A> leaf, BinaryOperator<A> combiner) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive " + threshold);
+        }
+        if (size <= threshold) {
+            return leaf.compute(0, size);
+        }
+        var task = new RangeTask<>(source, 0, size, threshold, leaf, combiner);
+        return pool == null ? task.invoke() : pool.invoke(task);
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= threshold) {
+            return leaf.compute(from, to);
+        }
+        var mid = source == null ? (from + to) >>> 1 : source.splitPoint(from, to);
+        if (mid <= from || mid >= to) {
+            return leaf.compute(from, to);
+        }
+        var left = new RangeTask<>(source, from, mid, threshold, leaf, combiner);
+        left.fork();
+        var right = new RangeTask<>(source, mid, to, threshold, leaf, combiner).compute();
+        return combiner.apply(left.join(), right);
+    }
+}
@@ -0,0 +1,102 @@
+package core.classes;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * encodes and decodes elements of a fixed size (width bytes) at a given offset of a ByteBuffer,
+ * the methods use the absolute get/put methods so they never change the position of the buffer
+ * and use the byte order of the buffer
+ * */
+public interface RecordCodec<T> {
+    /**
+     * returns the number of bytes of an encoded element
+     * @return int
+     * */
+    int width();
+
+    /**
+     * decodes the element stored at offset
+     * @param buffer ByteBuffer
+     * @param offset int
+     * @return T
+     * */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * encodes the element at offset
+     * @param buffer ByteBuffer
+     * @param offset int
+     * @param value T
+     * */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * codec of int values, 4 bytes
+     * */
+    RecordCodec<Integer> INT = of(Integer.BYTES, ByteBuffer::getInt, ByteBuffer::putInt);
+
+    /**
+     * codec of long values, 8 bytes
+     * */
+    RecordCodec<Long> LONG = of(Long.BYTES, ByteBuffer::getLong, ByteBuffer::putLong);
+
+    /**
+     * codec of double values, 8 bytes
+     * */
+    RecordCodec<Double> DOUBLE = of(Double.BYTES, ByteBuffer::getDouble, ByteBuffer::putDouble);
+
+    /**
+     * reads an element at an offset of a buffer
+     * */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * writes an element at an offset of a buffer
+     * */
+    @FunctionalInterface
+    interface Writer<T> {
+        void write(ByteBuffer buffer, int offset, T value);
+    }
+
+    /**
+     * creates a codec from a width and two functions, useful for fixed layout records
+     * <pre>
+     * record Point(int x, int y) {}
+     * var codec = RecordCodec.of(8,
+     *     (buffer, offset) -> new Point(buffer.getInt(offset), buffer.getInt(offset + 4)),
+     *     (buffer, offset, p) -> buffer.putInt(offset, p.x()).putInt(offset + 4, p.y()));
+     * </pre>
+     * @param width int
+     * @param reader Reader<T>
+     * @param writer Writer<? super T>
+     * @return RecordCodec<T>
+     * @throws IllegalArgumentException if width is not positive
+     * */
+    static <T> RecordCodec<T> of(int width, Reader<T> reader, Writer<? super T> writer) {
+        Objects.requireNonNull(reader);
+        Objects.requireNonNull(writer);
+        if (width <= 0) {
+            throw new IllegalArgumentException("width must be positive " + width);
+        }
+        return new RecordCodec<>() {
+            @Override
+            public int width() {
+                return width;
+            }
+
+            @Override
+            public T read(ByteBuffer buffer, int offset) {
+                return reader.read(buffer, offset);
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, T value) {
+                writer.write(buffer, offset, value);
+            }
+        };
+    }
+}
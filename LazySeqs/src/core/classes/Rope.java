@@ -0,0 +1,101 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * concatenation of lazySeqs, each piece keeps its own mapper.
+ * starts[k] is the index of the first element of the piece k, so get(i) finds its piece
+ * with a binary search in O(log k) and the spliterator splits on piece boundaries first
+ * */
+final class Rope<E> extends AbstractList<E> implements RandomAccess, IndexedSource {
+    private final Seq<? extends E>[] pieces;
+    private final int[] starts;
+    private final int size;
+
+    Rope(Seq<? extends E>[] pieces) {
+        this.pieces = pieces;
+        this.starts = new int[pieces.length];
+        var size = 0L;
+        for (var k = 0; k < pieces.length; k++) {
+            starts[k] = (int) size;
+            size += pieces[k].size();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the concatenation has more than Integer.MAX_VALUE elements " + size);
+        }
+        this.size = (int) size;
+    }
+
+    Seq<? extends E>[] pieces() {
+        return pieces;
+    }
+
+    private int piece(int index) {
+        var k = Arrays.binarySearch(starts, index);
+        if (k < 0) {
+            return -k - 2;
+        }
+        // empty pieces have the same start as the next one, take the last of them
+        while (k + 1 < starts.length && starts[k + 1] == index) {
+            k++;
+        }
+        return k;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        var k = piece(index);
+        return pieces[k].get(index - starts[k]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int k;
+            private Iterator<? extends E> current = pieces.length == 0 ? null : pieces[0].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (current != null && !current.hasNext()) {
+                    current = ++k < pieces.length ? pieces[k].iterator() : null;
+                }
+                return current != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public int splitPoint(int from, int to) {
+        var mid = (from + to) >>> 1;
+        // the piece boundary inside ]from, to[ that is the closest to mid
+        var k = piece(mid);
+        var before = starts[k];
+        var after = k + 1 < starts.length ? starts[k + 1] : size;
+        if (before > from && (mid - before <= after - mid || after >= to)) {
+            return before;
+        }
+        if (after < to) {
+            return after;
+        }
+        return mid;
+    }
+}
@@ -0,0 +1,35 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * read only view of the elements of a list at the positions stored in positions[offset, offset + size),
+ * used by the indexes to return the matching elements without copying them
+ * */
+final class Selection<E> extends AbstractList<E> implements RandomAccess {
+    private final List<? extends E> list;
+    private final int[] positions;
+    private final int offset;
+    private final int size;
+
+    Selection(List<? extends E> list, int[] positions, int offset, int size) {
+        this.list = list;
+        this.positions = positions;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return list.get(positions[offset + index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
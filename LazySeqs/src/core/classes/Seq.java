@@ -1,31 +1,73 @@
 package core.classes;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class Seq <T> implements Iterable<T>{
+    // minimum number of elements of a split of the stream spliterator
+    private static final int DEFAULT_LEAF_SIZE = 1024;
+    // number of elements pulled at once by fromIterator and lines
+    private static final int DEFAULT_CHUNK_SIZE = 1024;
+    // number of bytes buffered by writeTo(channel, charset) before writing them to the channel
+    private static final int TEXT_BUFFER_SIZE = 8192;
+
     private final List<?> seq;
-    private final int size;
-    private final Function<Object, T> mapper;
+    private final Pipeline<T> mapper;
+    // null if the lazySeq is not instrumented
+    private final Probe probe;
 
     public Seq(List<?> seq, Function<Object, T> mapper) {
+        this(seq, Pipeline.of(mapper));
+    }
+
+    private Seq(List<?> seq, Pipeline<T> mapper) {
+        this(seq, mapper, null);
+    }
+
+    private Seq(List<?> seq, Pipeline<T> mapper, Probe probe) {
         this.seq = seq;
-        this.size = seq.size();
         this.mapper = mapper;
+        this.probe = probe;
     }
     /**
      * creates a LazySeq from a Collection<? extends v>
      * @param list Collection<? extends v>
      * @return Seq<v>
      * */
-    @SuppressWarnings("unchecked")
     public static <v> Seq<v> from(Collection<? extends v> list) {
         Objects.requireNonNull(list);
 
-        return new Seq<>(List.copyOf(list),i->(v)i);
+        return new Seq<>(List.copyOf(list), Pipeline.identity());
     }
 
     /**
@@ -36,9 +78,294 @@ public class Seq <T> implements Iterable<T>{
     @SafeVarargs
     public static <v> Seq<v> of(v ...values) {
         Objects.requireNonNull(values);
-        @SuppressWarnings("unchecked")
-        var seq = new Seq<>(List.of(values), i->(v)i);
-        return seq;
+        return new Seq<>(List.of(values), Pipeline.<v>identity());
+    }
+
+    /**
+     * creates a lazySeq that uses the array as is, without copying it.
+     * the caller gives the ownership of the array to the lazySeq, the array must not be modified
+     * afterwards and must not contain null, use from(...) if this can not be guaranteed
+     * @param array v[]
+     * @return Seq<v>
+     * */
+    public static <v> Seq<v> wrap(v[] array) {
+        Objects.requireNonNull(array);
+        return wrap(array, 0, array.length);
+    }
+
+    /**
+     * creates a lazySeq of the elements of the array between from (inclusive) and to (exclusive)
+     * without copying them, the same ownership rules as wrap(array) apply to that range
+     * @param array v[]
+     * @param from int
+     * @param to int
+     * @return Seq<v>
+     * @throws IndexOutOfBoundsException if the range is not inside the array
+     * */
+    public static <v> Seq<v> wrap(v[] array, int from, int to) {
+        Objects.requireNonNull(array);
+        Objects.checkFromToIndex(from, to, array.length);
+        return new Seq<>(new ArrayView<>(array, from, to - from), Pipeline.identity());
+    }
+
+    /**
+     * creates a view of the list, the elements are read from the list without copying it.
+     * the size is captured now: the list must not be structurally modified (add, remove...) while
+     * the lazySeq is used, elements added later are not part of the view and the lazySeqs derived from it
+     * (sortedBy, memoize, indexBy...) keep state computed for that size.
+     * replacing an element with set is seen by the next reads but not by the state already computed from it.
+     * the list must not contain null, use from(...) or SeqBuffer if this can not be guaranteed
+     * @param list List<? extends v> a RandomAccess list
+     * @return Seq<v>
+     * @throws IllegalArgumentException if the list is not RandomAccess
+     * */
+    public static <v> Seq<v> view(List<? extends v> list) {
+        Objects.requireNonNull(list);
+        if (!(list instanceof RandomAccess)) {
+            throw new IllegalArgumentException("the list must be RandomAccess " + list.getClass().getName());
+        }
+        return new Seq<>(Slice.fixed(list), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq over a file of fixed size records stored in big endian,
+     * the file is memory-mapped and a record is decoded only when get, forEach, iterator or stream reach it.
+     * the file must not be modified while the lazySeq is used
+     * @param path Path
+     * @param codec RecordCodec<v>
+     * @return Seq<v>
+     * @throws IOException if the file can not be mapped
+     * @throws IllegalArgumentException if the file size is not a multiple of the codec width
+     * */
+    public static <v> Seq<v> mapFile(Path path, RecordCodec<v> codec) throws IOException {
+        return mapFile(path, codec, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * creates a lazySeq over a file of fixed size records stored using the byte order order,
+     * see mapFile(path, codec)
+     * @param path Path
+     * @param codec RecordCodec<v>
+     * @param order ByteOrder
+     * @return Seq<v>
+     * @throws IOException if the file can not be mapped
+     * */
+    public static <v> Seq<v> mapFile(Path path, RecordCodec<v> codec, ByteOrder order) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(codec);
+        Objects.requireNonNull(order);
+        return new Seq<>(MappedRecords.map(path, codec, order), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq over a file written by writeBinary, the file is memory-mapped,
+     * only the trailer is read now and an element is decoded only when get, forEach, iterator or stream reach it.
+     * the file must not be modified while the lazySeq is used
+     * @param path Path
+     * @param codec ElementCodec<v> the codec used to write the file
+     * @return Seq<v>
+     * @throws IOException if the file can not be mapped
+     * @throws IllegalArgumentException if the file is not in the binary format
+     * */
+    public static <v> Seq<v> readBinary(Path path, ElementCodec<v> codec) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(codec);
+        return new Seq<>(BinaryFormat.map(path, codec), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq over the bytes of buffer from its position to its limit in the format of writeBinary,
+     * the bytes are not copied, an element is decoded only when it is accessed.
+     * the buffer must not be modified while the lazySeq is used
+     * @param buffer ByteBuffer
+     * @param codec ElementCodec<v> the codec used to write the bytes
+     * @return Seq<v>
+     * @throws IllegalArgumentException if the bytes are not in the binary format
+     * */
+    public static <v> Seq<v> readBinary(ByteBuffer buffer, ElementCodec<v> codec) {
+        Objects.requireNonNull(buffer);
+        Objects.requireNonNull(codec);
+        return new Seq<>(BinaryFormat.wrap(buffer, codec), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq that pulls its elements from the iterator by chunks of 1024 elements,
+     * only when an index or a traversal needs them.
+     * size() has to pull every element, forEach, iterator and stream do not need the size
+     * @param iterator Iterator<? extends v>
+     * @return Seq<v>
+     * @throws NullPointerException if the iterator returns null
+     * */
+    public static <v> Seq<v> fromIterator(Iterator<? extends v> iterator) {
+        return fromIterator(iterator, DEFAULT_CHUNK_SIZE, false);
+    }
+
+    /**
+     * creates a lazySeq that pulls its elements from the iterator by chunks of chunkSize elements.
+     * if singlePass is true, the chunks already traversed by forEach, iterator or stream are released
+     * so the elements can be traversed only once but the whole input is never kept in memory.
+     * once a traversal has released a chunk, get, toString and any other traversal that reaches
+     * one of its elements throws an IllegalStateException, size() still works as it only pulls the remaining elements.
+     * the elements are indexed by an int, pulling more than Integer.MAX_VALUE elements throws an IllegalStateException
+     * @param iterator Iterator<? extends v>
+     * @param chunkSize int
+     * @param singlePass boolean
+     * @return Seq<v>
+     * @throws IllegalArgumentException if chunkSize is not positive
+     * */
+    public static <v> Seq<v> fromIterator(Iterator<? extends v> iterator, int chunkSize, boolean singlePass) {
+        Objects.requireNonNull(iterator);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive " + chunkSize);
+        }
+        return new Seq<>(new PulledList<>(iterator, chunkSize, singlePass, () -> {}), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq of the lines of a UTF-8 file, the lines are read by chunks
+     * only when they are needed, the file is closed once the last line is read.
+     * a lazySeq has no close method, so if the lines may not all be read (get, limit, a traversal
+     * stopped early or by an exception) the file stays open until the process exits,
+     * use lines(reader, singlePass) with a reader opened in a try-with-resources in that case
+     * @param path Path
+     * @param singlePass boolean see fromIterator(iterator, chunkSize, singlePass)
+     * @return Seq<String>
+     * @throws IOException if the file can not be opened
+     * */
+    public static Seq<String> lines(Path path, boolean singlePass) throws IOException {
+        Objects.requireNonNull(path);
+        var reader = Files.newBufferedReader(path);
+        var lines = reader.lines().iterator();
+        return new Seq<>(new PulledList<>(lines, DEFAULT_CHUNK_SIZE, singlePass, () -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq of the lines read from reader by chunks, only when they are needed.
+     * the reader is owned by the caller, it is never closed by the lazySeq and must stay open
+     * while the lazySeq is used
+     * @param reader BufferedReader
+     * @param singlePass boolean see fromIterator(iterator, chunkSize, singlePass)
+     * @return Seq<String>
+     * @throws UncheckedIOException if reading a line fails
+     * */
+    public static Seq<String> lines(BufferedReader reader, boolean singlePass) {
+        Objects.requireNonNull(reader);
+        return new Seq<>(new PulledList<>(reader.lines().iterator(), DEFAULT_CHUNK_SIZE, singlePass, () -> {}), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq of the lines of a UTF-8 file, see lines(path, singlePass)
+     * @param path Path
+     * @return Seq<String>
+     * @throws IOException if the file can not be opened
+     * */
+    public static Seq<String> lines(Path path) throws IOException {
+        return lines(path, false);
+    }
+
+    /**
+     * creates a lazySeq that is the concatenation of the lazySeqs, the elements are not copied,
+     * each lazySeq keeps its own mapper and get(i) finds the lazySeq containing i in O(log k)
+     * @param seqs Seq<? extends v>...
+     * @return Seq<v>
+     * @throws IllegalArgumentException if the concatenation has more than Integer.MAX_VALUE elements
+     * */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <v> Seq<v> concat(Seq<? extends v>... seqs) {
+        Objects.requireNonNull(seqs);
+        var pieces = new ArrayList<Seq<? extends v>>();
+        for (var seq : seqs) {
+            Objects.requireNonNull(seq);
+            if (seq.mapper.isIdentity() && seq.seq instanceof Rope) {
+                // flatten a concatenation of concatenations
+                pieces.addAll(Arrays.asList(((Rope<? extends v>) seq.seq).pieces()));
+            } else if (!seq.seq.isEmpty()) {
+                pieces.add(seq);
+            }
+        }
+        var array = (Seq<? extends v>[]) new Seq<?>[pieces.size()];
+        return new Seq<>(new Rope<v>(pieces.toArray(array)), Pipeline.identity());
+    }
+
+    /**
+     * stores the records by columns, one array per component of the record, see Columnar.
+     * the records are read once, the projections on a component (intColumn, column...) then read
+     * only the array of that component, a map on rows() rebuilds the records
+     * @param type Class<v> the class of the records
+     * @param records Collection<? extends v>
+     * @return Columnar<v>
+     * @throws IllegalArgumentException if type is not a record or if its components are not accessible
+     * @throws NullPointerException if a record or a component of a record is null
+     * */
+    public static <v extends Record> Columnar<v> columnar(Class<v> type, Collection<? extends v> records) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(records);
+        return Columnar.of(type, records);
+    }
+
+    /**
+     * creates a lazySeq of size elements where the element at index i is function.apply(i),
+     * nothing is stored, the function is called each time an element is needed
+     * so the lazySeq uses a constant amount of memory
+     * @param size int
+     * @param function IntFunction<? extends v>
+     * @return Seq<v>
+     * @throws IllegalArgumentException if size is negative
+     * */
+    public static <v> Seq<v> tabulate(int size, IntFunction<? extends v> function) {
+        Objects.requireNonNull(function);
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be positive or zero " + size);
+        }
+        return new Seq<>(new Tabulated<>(size, function), Pipeline.identity());
+    }
+
+    /**
+     * creates a lazySeq of the integers from start (inclusive) to end (exclusive),
+     * the integers are computed from the index, no list is allocated
+     * @param start int
+     * @param end int
+     * @return Seq<Integer>
+     * @throws IllegalArgumentException if start > end or if the range has more than Integer.MAX_VALUE values
+     * */
+    public static Seq<Integer> range(int start, int end) {
+        return tabulate(rangeSize(start, end), i -> start + i);
+    }
+
+    static int rangeSize(int start, int end) {
+        var size = (long) end - start;
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid range " + start + " " + end);
+        }
+        return (int) size;
+    }
+
+    private static final class Tabulated<v> extends AbstractList<v> implements RandomAccess {
+        private final int size;
+        private final IntFunction<? extends v> function;
+
+        private Tabulated(int size, IntFunction<? extends v> function) {
+            this.size = size;
+            this.function = function;
+        }
+
+        @Override
+        public v get(int index) {
+            Objects.checkIndex(index, size);
+            return function.apply(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 
     /**
@@ -46,14 +373,19 @@ public class Seq <T> implements Iterable<T>{
      * @param i int
      * @return T
      * */
-    public T get(int i) {return mapper.apply(seq.get(i));}
+    public T get(int i) {
+        if (probe != null) {
+            probe.enter(SeqMetrics.EntryPoint.GET);
+        }
+        return mapper.apply(seq.get(i));
+    }
 
 
     /**
      * returns the size of the lazySeq
      * */
     public int size() {
-        return size;
+        return seq.size();
     }
 
     /**
@@ -64,7 +396,7 @@ public class Seq <T> implements Iterable<T>{
      * @return Optional<T>
      * */
     public Optional<T> findFirst() {
-        if(size == 0){
+        if(seq.isEmpty()){
           return Optional.empty();
         }
         return Optional.of(mapper.apply(seq.get(0)));
@@ -72,15 +404,472 @@ public class Seq <T> implements Iterable<T>{
 
     /**
      * lazy implementation of map function that takes the new Mapper function and return
-     * a lazySeq with that new Mapper function passed in params
+     * a lazySeq with that new Mapper function passed in params.
+     * the functions are not nested, they are appended as a new stage of the mapper pipeline
+     * so a chain of N maps costs N calls per element and no extra lambda frames
      * @param function Function<? super T, ? extends W>
      * @return Seq<W>
      * */
     public <W> Seq<W> map(Function<? super T, ? extends W> function){
         Objects.requireNonNull(function);
-        return new Seq<>(seq, mapper.andThen(function));
+        if (probe != null) {
+            return new Seq<>(seq, mapper.then(probe.stage(mapper.depth(), function)), probe);
+        }
+        return new Seq<>(seq, mapper.then(function));
+    }
+
+    /**
+     * returns a lazySeq of the elements that satisfy predicate, the predicate is tested only as far
+     * as the highest index requested: get(i) scans the elements until the i-th match, findFirst until the first one.
+     * the positions of the matches are recorded in an int[] reused by the next get, forEach and toString,
+     * size() scans all the elements once. until everything is scanned, a parallel stream
+     * tests the ranges not yet scanned concurrently
+     * @param predicate Predicate<? super T>
+     * @return Seq<T>
+     * */
+    public Seq<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return new Seq<>(new FilteredList<>(seq, e -> predicate.test(mapper.apply(e))), mapper, probe);
+    }
+
+    /**
+     * returns the concatenation of the lazySeqs computed by function from the elements of this lazySeq.
+     * the elements are expanded only as far as the highest index requested, the sizes of the lazySeqs
+     * are recorded in an int[] so get(i) computes only the lazySeq containing the index i,
+     * size() expands all the elements once. until everything is expanded, a parallel stream
+     * expands the ranges concurrently
+     * @param function Function<? super T, ? extends Seq<? extends W>>
+     * @return Seq<W>
+     * @throws IllegalArgumentException if the result has more than Integer.MAX_VALUE elements
+     * */
+    public <W> Seq<W> flatMap(Function<? super T, ? extends Seq<? extends W>> function) {
+        Objects.requireNonNull(function);
+        var stage = probed(function);
+        return new Seq<>(new FlatList<W>(seq, e -> stage.apply(mapper.apply(e))), Pipeline.identity(), downstream(1));
+    }
+
+    /**
+     * returns a lazySeq of the elements between from (inclusive) and to (exclusive),
+     * the returned lazySeq is a view that shares the elements and the mapper of this lazySeq,
+     * a source pulled from an iterator is only pulled up to to
+     * @param from int
+     * @param to int
+     * @return Seq<T>
+     * @throws IndexOutOfBoundsException if from < 0, to > size() or from > to
+     * */
+    public Seq<T> subSeq(int from, int to) {
+        if (IndexedSource.isSized(seq)) {
+            Objects.checkFromToIndex(from, to, seq.size());
+        } else if (from < 0 || from > to || (to > 0 && !IndexedSource.hasIndex(seq, to - 1))) {
+            // only the elements up to to are pulled, not the whole source
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of bounds");
+        }
+        return new Seq<>(Slice.of(seq, from, to), mapper, probe);
+    }
+
+    /**
+     * returns a view of this lazySeq without its first n elements,
+     * a source pulled from an iterator is not pulled until the elements are needed
+     * @param n int
+     * @return Seq<T>
+     * @throws IllegalArgumentException if n is negative
+     * */
+    public Seq<T> skip(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be positive or zero " + n);
+        }
+        return new Seq<>(Slice.upTo(seq, n, Integer.MAX_VALUE), mapper, probe);
+    }
+
+    /**
+     * returns a view of the n first elements of this lazySeq,
+     * a source pulled from an iterator is pulled at most up to its n first elements
+     * @param n int
+     * @return Seq<T>
+     * @throws IllegalArgumentException if n is negative
+     * */
+    public Seq<T> limit(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be positive or zero " + n);
+        }
+        return new Seq<>(Slice.upTo(seq, 0, n), mapper, probe);
+    }
+
+    /**
+     * returns a lazySeq equal to this one except that the element at index is value.
+     * the lazySeqs are persistent: this lazySeq is not modified and the returned one shares
+     * its structure, the first update converts the backing list into a tree in O(n / 32)
+     * without copying the elements, the following updates cost O(log32 n).
+     * the mapper is not applied to the other elements, map on the result stays lazy
+     * @param index int
+     * @param value T
+     * @return Seq<T>
+     * @throws IndexOutOfBoundsException if index is not in [0, size())
+     * */
+    public Seq<T> with(int index, T value) {
+        Objects.requireNonNull(value);
+        Objects.checkIndex(index, seq.size());
+        return persistent((vector, element) -> vector.with(index, element), value);
+    }
+
+    /**
+     * returns a lazySeq with value added after the last element, see with(index, value)
+     * @param value T
+     * @return Seq<T>
+     * */
+    public Seq<T> append(T value) {
+        Objects.requireNonNull(value);
+        return persistent((vector, element) -> vector.insert(vector.size(), element), value);
+    }
+
+    /**
+     * returns a lazySeq with value added before the first element, see with(index, value)
+     * @param value T
+     * @return Seq<T>
+     * */
+    public Seq<T> prepend(T value) {
+        Objects.requireNonNull(value);
+        return persistent((vector, element) -> vector.insert(0, element), value);
+    }
+
+    /**
+     * returns a lazySeq with value inserted at index, the elements after index are shifted,
+     * see with(index, value)
+     * @param index int
+     * @param value T
+     * @return Seq<T>
+     * @throws IndexOutOfBoundsException if index is not in [0, size()]
+     * */
+    public Seq<T> insertAt(int index, T value) {
+        Objects.requireNonNull(value);
+        Objects.checkIndex(index, seq.size() + 1);
+        return persistent((vector, element) -> vector.insert(index, element), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Seq<T> persistent(BiFunction<Vector<Object>, Object, Vector<Object>> update, T value) {
+        var vector = seq instanceof Vector ? (Vector<Object>) seq : Vector.copyOf(seq);
+        if (mapper.isIdentity()) {
+            return new Seq<>(update.apply(vector, value), mapper, probe);
+        }
+        // the value is already mapped, the overlay stores it so the mapper is not applied to it
+        var overlay = mapper.overlay();
+        return new Seq<>(update.apply(vector, overlay.wrap(value)), Pipeline.of(overlay), probe);
+    }
+
+    /**
+     * returns a lazySeq of the consecutive chunks of n elements of this lazySeq, the last chunk
+     * may be smaller. each chunk is a subSeq view, no element is copied or mapped until a chunk is read
+     * @param n int
+     * @return Seq<Seq<T>>
+     * @throws IllegalArgumentException if n is not positive
+     * */
+    public Seq<Seq<T>> chunked(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive " + n);
+        }
+        var size = seq.size();
+        return tabulate((int) (((long) size + n - 1) / n), i -> subSeq(i * n, (int) Math.min((long) i * n + n, size)));
+    }
+
+    /**
+     * returns a lazySeq of the windows of size elements starting every step elements,
+     * only the complete windows are returned. each window is a subSeq view,
+     * no element is copied or mapped until a window is read
+     * @param size int
+     * @param step int
+     * @return Seq<Seq<T>>
+     * @throws IllegalArgumentException if size or step is not positive
+     * */
+    public Seq<Seq<T>> sliding(int size, int step) {
+        if (size <= 0 || step <= 0) {
+            throw new IllegalArgumentException("size and step must be positive " + size + " " + step);
+        }
+        var length = seq.size();
+        var count = length < size ? 0 : (length - size) / step + 1;
+        return tabulate(count, i -> subSeq(i * step, i * step + size));
+    }
+
+    /**
+     * returns a lazySeq of the pairs of the elements of this lazySeq and other at the same index,
+     * the size is the size of the smaller lazySeq
+     * @param other Seq<? extends U>
+     * @return Seq<Map.Entry<T, U>>
+     * */
+    public <U> Seq<Map.Entry<T, U>> zip(Seq<? extends U> other) {
+        return zip(other, Map::entry);
+    }
+
+    /**
+     * returns a lazySeq of function applied to the elements of this lazySeq and other at the same index,
+     * the size is the size of the smaller lazySeq, function is called only when an element is read
+     * @param other Seq<? extends U>
+     * @param function BiFunction<? super T, ? super U, ? extends W>
+     * @return Seq<W>
+     * */
+    public <U, W> Seq<W> zip(Seq<? extends U> other, BiFunction<? super T, ? super U, ? extends W> function) {
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(function);
+        return tabulate(Math.min(seq.size(), other.seq.size()), i -> function.apply(mapper.apply(seq.get(i)), other.mapper.apply(other.seq.get(i))));
+    }
+
+    /**
+     * returns a lazySeq of the pairs of the index and the element of this lazySeq
+     * @return Seq<Map.Entry<Integer, T>>
+     * */
+    public Seq<Map.Entry<Integer, T>> zipWithIndex() {
+        return tabulate(seq.size(), i -> Map.entry(i, mapper.apply(seq.get(i))));
+    }
+
+    /**
+     * returns a lazySeq whose elements are computed by function on other threads,
+     * useful when function does I/O.
+     * forEach, iterator, stream and toString compute up to concurrency elements ahead of the traversal
+     * and still see the elements in order, if function throws for an element the exception is rethrown
+     * when the traversal reaches that element. get(i) computes only the element i on the calling thread.
+     * the elements are computed on virtual threads if the JDK supports them, on daemon threads otherwise
+     * @param function Function<? super T, ? extends W>
+     * @param concurrency int maximum number of elements computed at the same time by a traversal
+     * @return Seq<W>
+     * @throws IllegalArgumentException if concurrency is not positive
+     * */
+    public <W> Seq<W> mapAsync(Function<? super T, ? extends W> function, int concurrency) {
+        return mapAsync(function, concurrency, AsyncList.DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * same as mapAsync(function, concurrency) but the elements are computed using executor
+     * @param function Function<? super T, ? extends W>
+     * @param concurrency int
+     * @param executor Executor
+     * @return Seq<W>
+     * */
+    public <W> Seq<W> mapAsync(Function<? super T, ? extends W> function, int concurrency, Executor executor) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(executor);
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive " + concurrency);
+        }
+        return new Seq<>(new AsyncList<>(unprobed(), probed(function), concurrency, executor), Pipeline.identity(), downstream(1));
+    }
+
+    /**
+     * returns a lazySeq whose elements are computed by chunks of chunkSize elements by a batch function,
+     * useful when the function is cheaper in bulk (one lookup for many keys).
+     * get(i) computes only the chunk containing i, the computed chunks are cached,
+     * forEach and stream walk the lazySeq chunk by chunk and a parallel stream splits on chunk boundaries
+     * @param chunkSize int
+     * @param function Function<? super List<T>, ? extends List<? extends W>> must return a list of the same size
+     * @return Seq<W>
+     * @throws IllegalArgumentException if chunkSize is not positive
+     * */
+    public <W> Seq<W> mapBatch(int chunkSize, Function<? super List<T>, ? extends List<? extends W>> function) {
+        Objects.requireNonNull(function);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive " + chunkSize);
+        }
+        return new Seq<>(new BatchList<>(unprobed(), chunkSize, probed(function)), Pipeline.identity(), downstream(1));
+    }
+
+    /**
+     * returns a publisher of the elements of the lazySeq that sends them on virtual threads
+     * if the JDK supports them, on daemon threads otherwise, see toPublisher(executor)
+     * @return Flow.Publisher<T>
+     * */
+    public Flow.Publisher<T> toPublisher() {
+        return toPublisher(AsyncList.DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * returns a publisher of the elements of the lazySeq, each subscriber receives all the elements in order
+     * from its own traversal. an element is mapped only when a subscriber has requested it with request(n),
+     * the elements are sent on executor, cancel stops the traversal.
+     * an exception thrown by the mapper is sent to the subscriber with onError
+     * @param executor Executor
+     * @return Flow.Publisher<T>
+     * */
+    public Flow.Publisher<T> toPublisher(Executor executor) {
+        Objects.requireNonNull(executor);
+        var size = seq instanceof IndexedSource && !((IndexedSource) seq).isSized() ? -1 : seq.size();
+        return new SeqPublisher<>(this, size, executor);
+    }
+
+    /**
+     * returns a lazySeq backed by an array of the elements of this lazySeq, so the mapper is not called anymore.
+     * the elements are computed by ranges of indexes on the common fork/join pool
+     * @return Seq<T>
+     * */
+    public Seq<T> force() {
+        return forced(null, RangeTask.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * returns a lazySeq backed by an array of the elements of this lazySeq, see force().
+     * the elements are computed by parallelism threads, on the calling thread only if parallelism is 1
+     * @param parallelism int
+     * @return Seq<T>
+     * @throws IllegalArgumentException if parallelism is not positive
+     * */
+    public Seq<T> materialize(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive " + parallelism);
+        }
+        if (parallelism == 1) {
+            return forced(null, Integer.MAX_VALUE);
+        }
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            return forced(pool, RangeTask.DEFAULT_THRESHOLD);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Seq<T> forced(ForkJoinPool pool, int threshold) {
+        var values = new Object[seq.size()];
+        forEachIndexed(pool, threshold, (e, index) -> values[index] = e);
+        return new Seq<>(new ArrayView<>(values, 0, values.length), Pipeline.identity());
+    }
+
+    /**
+     * returns an IntSeq backed by an int[] of function applied to the elements, computed like force()
+     * @param function ToIntFunction<? super T>
+     * @return IntSeq
+     * */
+    public IntSeq forceInt(ToIntFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        var values = new int[seq.size()];
+        forEachIndexed(null, RangeTask.DEFAULT_THRESHOLD, (e, index) -> values[index] = function.applyAsInt(e));
+        return new IntSeq(values, IntUnaryOperator.identity());
+    }
+
+    /**
+     * returns a LongSeq backed by a long[] of function applied to the elements, computed like force()
+     * @param function ToLongFunction<? super T>
+     * @return LongSeq
+     * */
+    public LongSeq forceLong(ToLongFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        var values = new long[seq.size()];
+        forEachIndexed(null, RangeTask.DEFAULT_THRESHOLD, (e, index) -> values[index] = function.applyAsLong(e));
+        return new LongSeq(values, LongUnaryOperator.identity());
+    }
+
+    /**
+     * returns a DoubleSeq backed by a double[] of function applied to the elements, computed like force()
+     * @param function ToDoubleFunction<? super T>
+     * @return DoubleSeq
+     * */
+    public DoubleSeq forceDouble(ToDoubleFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        var values = new double[seq.size()];
+        forEachIndexed(null, RangeTask.DEFAULT_THRESHOLD, (e, index) -> values[index] = function.applyAsDouble(e));
+        return new DoubleSeq(values, DoubleUnaryOperator.identity());
     }
 
+    /**
+     * calls action with each mapped element and its index, the ranges of indexes are traversed on pool
+     * */
+    private void forEachIndexed(ForkJoinPool pool, int threshold, ObjIntConsumer<? super T> action) {
+        var source = seq instanceof IndexedSource ? (IndexedSource) seq : null;
+        RangeTask.invoke(pool, seq.size(), threshold, source, (from, to) -> {
+            if (source != null) {
+                var index = new int[] { from };
+                source.forEachInRange(from, to, e -> action.accept(mapper.apply(e), index[0]++));
+                return null;
+            }
+            for (var index = from; index < to; index++) {
+                action.accept(mapper.apply(seq.get(index)), index);
+            }
+            return null;
+        }, (left, right) -> null);
+    }
+
+    /**
+     * returns a lazySeq that caches every value computed by the mapper, so the mapper runs
+     * at most once per index whatever the number of get, forEach, iterator, stream or toString calls.
+     * the cache is lock-free and can be shared between threads
+     * @return Seq<T>
+     * */
+    public Seq<T> memoize() {
+        return memoize(MemoPolicy.full());
+    }
+
+    /**
+     * returns a lazySeq that caches the values computed by the mapper using the given policy,
+     * the values are still computed lazily, size() never calls the mapper
+     * @param policy MemoPolicy
+     * @return Seq<T>
+     * */
+    public Seq<T> memoize(MemoPolicy policy) {
+        Objects.requireNonNull(policy);
+        return new Seq<>(policy.cache(unprobed()), Pipeline.identity(), downstream(0));
+    }
+
+    /**
+     * returns the hit/miss counters of a memoized lazySeq (or of a lazySeq mapped from a memoized one)
+     * or Optional.empty() if the lazySeq is not memoized
+     * @return Optional<MemoStats>
+     * */
+    public Optional<MemoStats> memoStats() {
+        if (seq instanceof MemoPolicy.Cache) {
+            return Optional.of(((MemoPolicy.Cache<?>) seq).stats());
+        }
+        return Optional.empty();
+    }
+
+
+    /**
+     * returns a lazySeq that counts its traversals by entry point (get, iterator, stream, forEach, toString, reductions)
+     * and the calls of each map stage, the latency of a stage is measured on a sample of its calls.
+     * the lazySeqs derived by map, subSeq, skip, limit, with, append, flatMap, mapAsync, mapBatch, memoize...
+     * share the same counters, the functions of flatMap, mapAsync and mapBatch are counted as stages
+     * (one call per chunk for mapBatch),
+     * the traversals and the sampled stage calls are also recorded as JFR events named
+     * core.classes.SeqTraversal and core.classes.SeqStage.
+     * a lazySeq that is not instrumented pays only a null check per traversal
+     * @param name String the name reported by the metrics and the JFR events
+     * @return Seq<T>
+     * */
+    public Seq<T> instrument(String name) {
+        Objects.requireNonNull(name);
+        var probe = new Probe(name);
+        return new Seq<>(seq, mapper.instrument(probe), probe);
+    }
+
+    /**
+     * returns this lazySeq without its probe, used as upstream of the lazySeqs that start a new pipeline
+     * so their own traversals are not counted twice, the stages of mapper still count their calls
+     * */
+    private Seq<T> unprobed() {
+        return probe == null ? this : new Seq<>(seq, mapper);
+    }
+
+    /**
+     * returns function counted as the stage following mapper, or function itself if this lazySeq is not instrumented
+     * */
+    private <A, B> Function<A, B> probed(Function<A, B> function) {
+        return probe == null ? function : probe.stage(mapper.depth(), function);
+    }
+
+    /**
+     * returns the probe of a lazySeq whose pipeline starts after mapper and stages more stages
+     * */
+    private Probe downstream(int stages) {
+        return probe == null ? null : probe.after(mapper.depth() + stages);
+    }
+
+    /**
+     * returns a snapshot of the counters of an instrumented lazySeq
+     * or Optional.empty() if the lazySeq is not instrumented
+     * @return Optional<SeqMetrics>
+     * */
+    public Optional<SeqMetrics> metrics() {
+        if (probe == null) {
+            return Optional.empty();
+        }
+        return Optional.of(probe.snapshot());
+    }
 
     /**
      * return ann iterator of the lazySeq
@@ -88,6 +877,9 @@ public class Seq <T> implements Iterable<T>{
      * */
     @Override
     public Iterator<T> iterator() {
+        if (probe != null) {
+            probe.enter(SeqMetrics.EntryPoint.ITERATOR);
+        }
         return seq.stream().map(mapper).iterator();
     }
 
@@ -97,8 +889,9 @@ public class Seq <T> implements Iterable<T>{
      * @param start int
      * @param end int
      * @param seq List<?>
+     * @param leafSize int the spliterator is not split if the halves would be smaller than leafSize
      * */
-    private Spliterator<T> spliterator(int start, int end, List<?> seq) {
+    private Spliterator<T> spliterator(int start, int end, List<?> seq, int leafSize) {
         return new Spliterator<>() {
             private int i  = start;
             @Override
@@ -112,13 +905,29 @@ public class Seq <T> implements Iterable<T>{
             }
 
             @Override
-            public Spliterator<T> trySplit() {
+            public void forEachRemaining(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                var from = i;
+                i = end; // -> the spliterator is consumed even if the action throws
+                if (seq instanceof IndexedSource) {
+                    ((IndexedSource) seq).forEachInRange(from, end, e -> action.accept(mapper.apply(e)));
+                    return;
+                }
+                for (var index = from; index < end; index++) {
+                    action.accept(mapper.apply(seq.get(index)));
+                }
+            }
 
-               var mid =( i + end ) >>> 1;
-               if(mid == i) {
+            @Override
+            public Spliterator<T> trySplit() {
+               if(end - i < 2 * leafSize) {
                    return null;
                }
-               var split = spliterator(i,mid,seq);
+               var mid = seq instanceof IndexedSource ? ((IndexedSource) seq).splitPoint(i, end) : ( i + end ) >>> 1;
+               if(mid <= i || mid >= end) {
+                   return null;
+               }
+               var split = spliterator(i,mid,seq,leafSize);
                i = mid; // -> so that we get the size of the new split, and we update it for the tryAdvance
 
                return split;
@@ -146,7 +955,7 @@ public class Seq <T> implements Iterable<T>{
 
             @Override
             public int characteristics() {
-                return ORDERED | IMMUTABLE | NONNULL | SIZED ;
+                return ORDERED | IMMUTABLE | NONNULL | SIZED | SUBSIZED;
             }
         };
     }
@@ -156,7 +965,46 @@ public class Seq <T> implements Iterable<T>{
      * @return Stream<T>
      * */
     public Stream<T> stream() {
-        return StreamSupport.stream(spliterator(0, size, seq),false);
+        return stream(false);
+    }
+
+    /**
+     * returns a parallel stream of the lazySeq
+     * @return Stream<T>
+     * */
+    public Stream<T> parallelStream() {
+        return stream(true);
+    }
+
+    /**
+     * returns a stream of the lazySeq, parallel or not, the spliterator is not split
+     * in parts smaller than DEFAULT_LEAF_SIZE elements
+     * @param parallel boolean
+     * @return Stream<T>
+     * */
+    public Stream<T> stream(boolean parallel) {
+        return stream(parallel, DEFAULT_LEAF_SIZE);
+    }
+
+    /**
+     * returns a stream of the lazySeq, parallel or not, the spliterator is not split
+     * in parts smaller than leafSize elements, a bigger leafSize means less tasks when the stream is parallel
+     * @param parallel boolean
+     * @param leafSize int
+     * @return Stream<T>
+     * @throws IllegalArgumentException if leafSize is not positive
+     * */
+    public Stream<T> stream(boolean parallel, int leafSize) {
+        if (leafSize <= 0) {
+            throw new IllegalArgumentException("leafSize must be positive " + leafSize);
+        }
+        if (probe != null) {
+            probe.enter(SeqMetrics.EntryPoint.STREAM);
+        }
+        if (seq instanceof IndexedSource && !((IndexedSource) seq).isSized()) {
+            return StreamSupport.stream(seq.spliterator(), parallel).map(mapper);
+        }
+        return StreamSupport.stream(spliterator(0, seq.size(), seq, leafSize), parallel);
     }
 
 
@@ -168,23 +1016,501 @@ public class Seq <T> implements Iterable<T>{
      * */
     public void forEach(Consumer<? super T> consumer) {
         Objects.requireNonNull(consumer);
+        if (probe != null) {
+            var event = probe.begin(SeqMetrics.EntryPoint.FOR_EACH);
+            for (var e: seq) {
+                consumer.accept(mapper.apply(e));
+            }
+            Probe.end(event, seq.size());
+            return;
+        }
         for (var e: seq) {
             consumer.accept(mapper.apply(e));
         }
     }
 
+    /**
+     * folds the elements of the lazySeq, the indexes are split in ranges of at most 4096 elements
+     * that are folded in parallel on the fork/join pool, see fold(identity, accumulator, combiner, threshold)
+     * @param identity U
+     * @param accumulator BiFunction<U, ? super T, U>
+     * @param combiner BinaryOperator<U>
+     * @return U
+     * */
+    public <U> U fold(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        return fold(identity, accumulator, combiner, RangeTask.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * folds the elements of the lazySeq: the indexes are split in ranges of at most threshold elements,
+     * each range is folded starting from identity by a fork/join task that applies the mapper inline
+     * and the results of adjacent ranges are merged by combiner, in the order of the indexes.
+     * as for Stream.reduce, identity must be an identity for combiner and combiner must be associative.
+     * a lazySeq whose size is not known (fromIterator, lines) is folded sequentially
+     * @param identity U
+     * @param accumulator BiFunction<U, ? super T, U>
+     * @param combiner BinaryOperator<U>
+     * @param threshold int the lazySeq is folded on the calling thread if it has at most threshold elements
+     * @return U
+     * @throws IllegalArgumentException if threshold is not positive
+     * */
+    public <U> U fold(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner, int threshold) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        return reduceRanges(() -> new Box<>(identity), (box, e) -> box.value = accumulator.apply(box.value, e), (left, right) -> {
+            left.value = combiner.apply(left.value, right.value);
+            return left;
+        }, threshold).value;
+    }
+
+    /**
+     * reduces the elements of the lazySeq using an associative operator, see fold
+     * @param identity T
+     * @param operator BinaryOperator<T>
+     * @return T
+     * */
+    public T reduce(T identity, BinaryOperator<T> operator) {
+        return fold(identity, operator, operator);
+    }
+
+    /**
+     * reduces the elements of the lazySeq using an associative operator, see fold
+     * @param operator BinaryOperator<T>
+     * @return Optional<T> empty if the lazySeq is empty
+     * @throws NullPointerException if the result of the reduction is null
+     * */
+    public Optional<T> reduce(BinaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        BiConsumer<Box<T>, T> accumulator = (box, e) -> {
+            box.value = box.seen ? operator.apply(box.value, e) : e;
+            box.seen = true;
+        };
+        var result = reduceRanges(Box<T>::new, accumulator, (left, right) -> {
+            if (right.seen) {
+                accumulator.accept(left, right.value);
+            }
+            return left;
+        }, RangeTask.DEFAULT_THRESHOLD);
+        return result.seen ? Optional.of(result.value) : Optional.empty();
+    }
+
+    /**
+     * returns the smallest element of the lazySeq according to comparator, the first one if several are equal
+     * @param comparator Comparator<? super T>
+     * @return Optional<T> empty if the lazySeq is empty
+     * */
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return reduce(BinaryOperator.minBy(comparator));
+    }
+
+    /**
+     * returns the biggest element of the lazySeq according to comparator, the first one if several are equal
+     * @param comparator Comparator<? super T>
+     * @return Optional<T> empty if the lazySeq is empty
+     * */
+    public Optional<T> max(Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        return reduce((a, b) -> comparator.compare(a, b) >= 0 ? a : b);
+    }
+
+    /**
+     * returns the sum of function applied to the elements, the sum is computed as a long so it does not overflow
+     * for less than 2^32 elements, nothing is boxed
+     * @param function ToIntFunction<? super T>
+     * @return long
+     * */
+    public long sumInt(ToIntFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        return reduceRanges(() -> new long[1], (sum, e) -> sum[0] += function.applyAsInt(e), (left, right) -> {
+            left[0] += right[0];
+            return left;
+        }, RangeTask.DEFAULT_THRESHOLD)[0];
+    }
+
+    /**
+     * returns the sum of function applied to the elements, nothing is boxed
+     * @param function ToLongFunction<? super T>
+     * @return long
+     * */
+    public long sumLong(ToLongFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        return reduceRanges(() -> new long[1], (sum, e) -> sum[0] += function.applyAsLong(e), (left, right) -> {
+            left[0] += right[0];
+            return left;
+        }, RangeTask.DEFAULT_THRESHOLD)[0];
+    }
+
+    /**
+     * returns the sum of function applied to the elements, nothing is boxed.
+     * the ranges are summed in parallel so the rounding may differ from a sequential sum
+     * @param function ToDoubleFunction<? super T>
+     * @return double
+     * */
+    public double sumDouble(ToDoubleFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        return reduceRanges(() -> new double[1], (sum, e) -> sum[0] += function.applyAsDouble(e), (left, right) -> {
+            left[0] += right[0];
+            return left;
+        }, RangeTask.DEFAULT_THRESHOLD)[0];
+    }
+
+    /**
+     * collects the elements of the lazySeq, each range of indexes is accumulated in its own container
+     * and the containers are merged in the order of the indexes, see fold
+     * @param collector Collector<? super T, A, R>
+     * @return R
+     * */
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        return collect(collector, RangeTask.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * collects the elements of the lazySeq, see collect(collector) and fold(identity, accumulator, combiner, threshold)
+     * @param collector Collector<? super T, A, R>
+     * @param threshold int
+     * @return R
+     * @throws IllegalArgumentException if threshold is not positive
+     * */
+    public <R, A> R collect(Collector<? super T, A, R> collector, int threshold) {
+        Objects.requireNonNull(collector);
+        var container = reduceRanges(collector.supplier(), collector.accumulator(), collector.combiner(), threshold);
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * returns a lazySeq of the elements of this lazySeq ordered by the natural order of their keys,
+     * see sortedBy(keyExtractor, comparator, parallel)
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @return Seq<T>
+     * */
+    public <K extends Comparable<? super K>> Seq<T> sortedBy(Function<? super T, ? extends K> keyExtractor) {
+        return sortedBy(keyExtractor, Comparator.naturalOrder(), false);
+    }
+
+    /**
+     * returns a lazySeq of the elements of this lazySeq ordered by the natural order of their keys,
+     * see sortedBy(keyExtractor, comparator, parallel)
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @param parallel boolean
+     * @return Seq<T>
+     * */
+    public <K extends Comparable<? super K>> Seq<T> sortedBy(Function<? super T, ? extends K> keyExtractor, boolean parallel) {
+        return sortedBy(keyExtractor, Comparator.naturalOrder(), parallel);
+    }
+
+    /**
+     * returns a lazySeq of the elements of this lazySeq ordered by their keys, the sort is stable.
+     * the sort is done the first time an element is accessed: the keys are computed once per element,
+     * an int[] of indexes is sorted by the keys then the keys are dropped.
+     * the elements are not stored, get(i) maps the element at the i-th index of the permutation,
+     * map on the result stays lazy and size() does not sort
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @param comparator Comparator<? super K>
+     * @param parallel boolean if true the keys are computed and sorted on the fork/join pool
+     * @return Seq<T>
+     * */
+    @SuppressWarnings("unchecked")
+    public <K> Seq<T> sortedBy(Function<? super T, ? extends K> keyExtractor, Comparator<? super K> comparator, boolean parallel) {
+        Objects.requireNonNull(keyExtractor);
+        Objects.requireNonNull(comparator);
+        Function<Object, Object> key = e -> keyExtractor.apply(mapper.apply(e));
+        return new Seq<>(new SortedView<>(seq, key, (Comparator<Object>) comparator, parallel), mapper, probe);
+    }
+
+    /**
+     * returns the k biggest elements according to comparator, from the biggest to the smallest.
+     * the elements are traversed once and only the k best so far are kept in a heap,
+     * the ranges of indexes are reduced in parallel on the fork/join pool like fold.
+     * the order of equal elements is not specified
+     * @param k int
+     * @param comparator Comparator<? super T>
+     * @return Seq<T> of min(k, size()) elements
+     * @throws IllegalArgumentException if k is negative
+     * */
+    @SuppressWarnings("unchecked")
+    public Seq<T> topK(int k, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be positive or zero " + k);
+        }
+        if (k == 0) {
+            return new Seq<>(List.of(), Pipeline.identity());
+        }
+        var heap = reduceRanges(() -> new PriorityQueue<T>(comparator), (PriorityQueue<T> queue, T e) -> offer(queue, k, comparator, e), (left, right) -> {
+            for (var e : right) {
+                offer(left, k, comparator, e);
+            }
+            return left;
+        }, RangeTask.DEFAULT_THRESHOLD);
+        var top = (T[]) heap.toArray();
+        Arrays.sort(top, comparator.reversed());
+        return wrap(top);
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, int k, Comparator<? super T> comparator, T element) {
+        if (heap.size() < k) {
+            heap.offer(element);
+        } else if (comparator.compare(element, heap.peek()) > 0) {
+            // the smallest kept element is at the root of the heap
+            heap.poll();
+            heap.offer(element);
+        }
+    }
+
+    /**
+     * returns a hash index of the positions of the elements by key, see indexBy(keyExtractor, parallel)
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @return SeqIndex<K, T>
+     * */
+    public <K> SeqIndex<K, T> indexBy(Function<? super T, ? extends K> keyExtractor) {
+        return indexBy(keyExtractor, false);
+    }
+
+    /**
+     * returns a hash index of the positions of the elements by key, so the elements with a given key
+     * are found in O(1) instead of a scan that maps every element.
+     * the index is built the first time it is queried, each key is computed once
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @param parallel boolean if true the keys are computed on the fork/join pool
+     * @return SeqIndex<K, T>
+     * */
+    public <K> SeqIndex<K, T> indexBy(Function<? super T, ? extends K> keyExtractor, boolean parallel) {
+        Objects.requireNonNull(keyExtractor);
+        return new SeqIndex<>(this, keyExtractor, parallel);
+    }
+
+    /**
+     * returns a sorted index of the elements by key in natural order,
+     * see sortedIndexBy(keyExtractor, comparator, parallel)
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @return SortedSeqIndex<K, T>
+     * */
+    public <K extends Comparable<? super K>> SortedSeqIndex<K, T> sortedIndexBy(Function<? super T, ? extends K> keyExtractor) {
+        return sortedIndexBy(keyExtractor, Comparator.naturalOrder(), false);
+    }
+
+    /**
+     * returns a sorted index of the elements by key, the range queries return views of this lazySeq.
+     * the index is built the first time it is queried, each key is computed once
+     * @param keyExtractor Function<? super T, ? extends K>
+     * @param comparator Comparator<? super K>
+     * @param parallel boolean if true the keys are computed and sorted on the fork/join pool
+     * @return SortedSeqIndex<K, T>
+     * */
+    public <K> SortedSeqIndex<K, T> sortedIndexBy(Function<? super T, ? extends K> keyExtractor, Comparator<? super K> comparator, boolean parallel) {
+        Objects.requireNonNull(keyExtractor);
+        Objects.requireNonNull(comparator);
+        return new SortedSeqIndex<>(this, keyExtractor, comparator, parallel);
+    }
+
+    /**
+     * returns true if the size of this lazySeq is known without pulling elements from its source
+     * */
+    boolean isSized() {
+        return IndexedSource.isSized(seq);
+    }
+
+    /**
+     * returns true if this lazySeq has an element at index, pulls its source only up to index
+     * */
+    boolean hasIndex(int index) {
+        return IndexedSource.hasIndex(seq, index);
+    }
+
+    /**
+     * returns the key of each element, computed on the fork/join pool if parallel is true
+     * */
+    Object[] keys(Function<? super T, ?> keyExtractor, boolean parallel) {
+        var keys = new Object[seq.size()];
+        RangeTask.invoke(keys.length, parallel ? RangeTask.DEFAULT_THRESHOLD : Integer.MAX_VALUE, null, (from, to) -> {
+            for (var index = from; index < to; index++) {
+                keys[index] = keyExtractor.apply(mapper.apply(seq.get(index)));
+            }
+            return null;
+        }, (left, right) -> null);
+        return keys;
+    }
+
+    /**
+     * returns a view of the elements at positions[from, to)
+     * */
+    Seq<T> select(int[] positions, int from, int to) {
+        return new Seq<>(new Selection<>(seq, positions, from, to - from), mapper, probe);
+    }
+
+    private static final class Box<U> {
+        private U value;
+        // false until the first element is accumulated, value can be null
+        private boolean seen;
+
+        private Box() {
+        }
+
+        private Box(U value) {
+            this.value = value;
+        }
+    }
+
+    private <A> A reduceRanges(Supplier<A> supplier, BiConsumer<A, ? super T> accumulator, BinaryOperator<A> combiner, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive " + threshold);
+        }
+        if (probe != null) {
+            probe.enter(SeqMetrics.EntryPoint.REDUCE);
+        }
+        if (seq instanceof IndexedSource && !((IndexedSource) seq).isSized()) {
+            var container = supplier.get();
+            for (var e : seq) {
+                accumulator.accept(container, mapper.apply(e));
+            }
+            return container;
+        }
+        var source = seq instanceof IndexedSource ? (IndexedSource) seq : null;
+        return RangeTask.invoke(seq.size(), threshold, source, (from, to) -> {
+            var container = supplier.get();
+            if (source != null) {
+                source.forEachInRange(from, to, e -> accumulator.accept(container, mapper.apply(e)));
+                return container;
+            }
+            for (var index = from; index < to; index++) {
+                accumulator.accept(container, mapper.apply(seq.get(index)));
+            }
+            return container;
+        }, combiner);
+    }
+
+    /**
+     * writes the elements to out using TextFormat.DEFAULT, the format of toString(),
+     * the elements are written one by one so the whole text is never built in memory
+     * @param out Appendable
+     * @throws IOException if out throws it
+     * */
+    public void writeTo(Appendable out) throws IOException {
+        writeTo(out, TextFormat.DEFAULT);
+    }
+
+    /**
+     * writes the elements to out using format, the elements are written one by one
+     * so the whole text is never built in memory
+     * @param out Appendable
+     * @param format TextFormat
+     * @throws IOException if out throws it
+     * */
+    public void writeTo(Appendable out, TextFormat format) throws IOException {
+        Objects.requireNonNull(out);
+        Objects.requireNonNull(format);
+        write(out, format, Long.MAX_VALUE);
+    }
+
+    /**
+     * writes the elements to channel encoded with charset using TextFormat.DEFAULT,
+     * see writeTo(channel, charset, format)
+     * @param channel WritableByteChannel
+     * @param charset Charset
+     * @throws IOException if the channel can not be written
+     * */
+    public void writeTo(WritableByteChannel channel, Charset charset) throws IOException {
+        writeTo(channel, charset, TextFormat.DEFAULT);
+    }
+
+    /**
+     * writes the elements to channel encoded with charset using format, the text goes through
+     * a buffer of 8 KB that is written to the channel each time it is full.
+     * the channel is not closed
+     * @param channel WritableByteChannel
+     * @param charset Charset
+     * @param format TextFormat
+     * @throws IOException if the channel can not be written
+     * */
+    public void writeTo(WritableByteChannel channel, Charset charset, TextFormat format) throws IOException {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(charset);
+        Objects.requireNonNull(format);
+        var writer = Channels.newWriter(channel, charset.newEncoder(), TEXT_BUFFER_SIZE);
+        write(writer, format, Long.MAX_VALUE);
+        writer.flush();
+    }
+
+    /**
+     * writes the elements to channel in a binary format that readBinary decodes lazily,
+     * see writeBinary(channel, codec, parallel)
+     * @param channel WritableByteChannel
+     * @param codec ElementCodec<? super T>
+     * @throws IOException if the channel can not be written or if the codec throws it
+     * */
+    public void writeBinary(WritableByteChannel channel, ElementCodec<? super T> codec) throws IOException {
+        writeBinary(channel, codec, false);
+    }
+
+    /**
+     * writes the elements to channel in a binary format: the encoded elements one after the other
+     * then a table of their offsets so each element can be decoded independently by readBinary.
+     * the elements are encoded and written by batches of 65536 elements, if parallel is true
+     * the ranges of a batch are encoded on the fork/join pool. the channel is not closed
+     * @param channel WritableByteChannel
+     * @param codec ElementCodec<? super T>
+     * @param parallel boolean
+     * @throws IOException if the channel can not be written or if the codec throws it
+     * */
+    public void writeBinary(WritableByteChannel channel, ElementCodec<? super T> codec, boolean parallel) throws IOException {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(codec);
+        BinaryFormat.write(this, channel, codec, parallel);
+    }
+
+    private void write(Appendable out, TextFormat format, long maxElements) throws IOException {
+        var event = probe == null ? null : probe.begin(SeqMetrics.EntryPoint.TO_STRING);
+        out.append(format.prefix());
+        var count = 0L;
+        for (var v: seq) {
+            if (count != 0) {
+                out.append(format.delimiter());
+            }
+            if (count == maxElements) {
+                out.append("...");
+                break;
+            }
+            format.render(mapper.apply(v), out);
+            count++;
+        }
+        out.append(format.suffix());
+        if (event != null) {
+            Probe.end(event, count);
+        }
+    }
+
+    /**
+     * return a string representing the first maxElements elements of the lazySeq using the format of toString(),
+     * "..." replaces the other elements, the elements after maxElements are not mapped
+     * @param maxElements int
+     * @return String
+     * @throws IllegalArgumentException if maxElements is negative
+     * */
+    public String toString(int maxElements) {
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("maxElements must be positive or zero " + maxElements);
+        }
+        return preview(maxElements);
+    }
+
+    private String preview(long maxElements) {
+        var builder = new StringBuilder();
+        try {
+            write(builder, TextFormat.DEFAULT, maxElements);
+        } catch (IOException e) {
+            throw new AssertionError(e); // a StringBuilder never throws IOException
+        }
+        return builder.toString();
+    }
+
     /**
      * return a string representing the lazySeq elements have a prefix "<" and suffix ">"
-     * separated by ", "
+     * separated by ", ", for a big lazySeq use toString(maxElements) or writeTo
      * @return String
      * */
     @Override
     public String toString() {
-        var sj = new StringJoiner(", ", "<",">");
-        for (var v: seq) {
-            sj.add(mapper.apply(v).toString());
-        }
-        return sj.toString();
+        return preview(Long.MAX_VALUE);
     }
 
 }
@@ -0,0 +1,96 @@
+package core.classes;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * growable buffer of elements that can be turned into a lazySeq without copying.
+ * toSeq() shares the buffer's array with the returned lazySeq, the array is only copied
+ * when the buffer is modified after a call to toSeq() (copy on first mutation),
+ * so the lazySeqs already returned never see the modification.
+ * the buffer itself is not thread-safe.
+ * */
+public final class SeqBuffer<T> {
+    private Object[] elements;
+    private int size;
+    private boolean shared;
+
+    /**
+     * creates an empty buffer
+     * */
+    public SeqBuffer() {
+        this(16);
+    }
+
+    /**
+     * creates an empty buffer that can store capacity elements before growing
+     * @param capacity int
+     * @throws IllegalArgumentException if capacity is negative
+     * */
+    public SeqBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be positive or zero " + capacity);
+        }
+        this.elements = new Object[capacity];
+    }
+
+    private void beforeMutation(int capacity) {
+        if (shared || capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, shared ? elements.length : elements.length * 2 + 1));
+            shared = false;
+        }
+    }
+
+    /**
+     * adds a non null element at the end of the buffer
+     * @param element T
+     * @throws NullPointerException if element is null
+     * */
+    public void add(T element) {
+        Objects.requireNonNull(element);
+        beforeMutation(size + 1);
+        elements[size++] = element;
+    }
+
+    /**
+     * replaces the element at index by a non null element
+     * @param index int
+     * @param element T
+     * @throws NullPointerException if element is null
+     * @throws IndexOutOfBoundsException if index is not in [0, size())
+     * */
+    public void set(int index, T element) {
+        Objects.requireNonNull(element);
+        Objects.checkIndex(index, size);
+        beforeMutation(size);
+        elements[index] = element;
+    }
+
+    /**
+     * returns the element at index
+     * @param index int
+     * @return T
+     * */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return (T) elements[index];
+    }
+
+    /**
+     * returns the number of elements of the buffer
+     * */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns a lazySeq of the current elements of the buffer, the elements are not copied
+     * @return Seq<T>
+     * */
+    @SuppressWarnings("unchecked")
+    public Seq<T> toSeq() {
+        shared = true;
+        return Seq.wrap((T[]) elements, 0, size);
+    }
+}
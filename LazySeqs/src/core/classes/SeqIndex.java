@@ -0,0 +1,147 @@
+package core.classes;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * hash index of the positions of the elements of a lazySeq by key, created by Seq.indexBy(keyExtractor).
+ * the index is built the first time it is queried: the keys are computed once per element
+ * and stored in an open-addressing table of the distinct keys, the positions of the elements
+ * with the same key are chained in an int[], no position is boxed.
+ * a lazySeq never changes its size, so the index stays valid as long as it is used with the lazySeq that created it,
+ * but replacing an element of a list wrapped by Seq.view is not seen by an index already built
+ * */
+public final class SeqIndex<K, T> {
+    private static final int NO_POSITION = -1;
+
+    private final Seq<T> seq;
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final boolean parallel;
+    private volatile Table table; // null until the first query
+
+    SeqIndex(Seq<T> seq, Function<? super T, ? extends K> keyExtractor, boolean parallel) {
+        this.seq = seq;
+        this.keyExtractor = keyExtractor;
+        this.parallel = parallel;
+    }
+
+    private static final class Table {
+        private final Object[] keys;       // distinct key of each slot
+        private final int[] hashes;        // hash of the key of each slot
+        private final int[] heads;         // first position of each slot, NO_POSITION if the slot is free
+        private final int[] counts;        // number of positions of each slot
+        private final int[] next;          // next position with the same key, NO_POSITION at the end
+
+        private Table(Object[] elementKeys) {
+            var size = elementKeys.length;
+            var capacity = 2;
+            while (capacity < 2L * size && capacity < 1 << 30) {
+                capacity <<= 1;
+            }
+            keys = new Object[capacity];
+            hashes = new int[capacity];
+            heads = new int[capacity];
+            counts = new int[capacity];
+            next = new int[size];
+            Arrays.fill(heads, NO_POSITION);
+            var tails = new int[capacity];
+            for (var position = 0; position < size; position++) {
+                var key = elementKeys[position];
+                var slot = slot(key, hash(key));
+                next[position] = NO_POSITION;
+                if (heads[slot] == NO_POSITION) {
+                    keys[slot] = key;
+                    hashes[slot] = hash(key);
+                    heads[slot] = position;
+                } else {
+                    next[tails[slot]] = position;
+                }
+                tails[slot] = position;
+                counts[slot]++;
+            }
+        }
+
+        private static int hash(Object key) {
+            var hash = Objects.hashCode(key);
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * returns the slot of key, or the free slot where it should be inserted
+         * */
+        private int slot(Object key, int hash) {
+            var mask = keys.length - 1;
+            var slot = hash & mask;
+            while (heads[slot] != NO_POSITION && (hashes[slot] != hash || !Objects.equals(keys[slot], key))) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    private Table table() {
+        var table = this.table;
+        if (table != null) {
+            return table;
+        }
+        synchronized (this) {
+            if (this.table == null) {
+                this.table = new Table(seq.keys(keyExtractor, parallel));
+            }
+            return this.table;
+        }
+    }
+
+    /**
+     * returns the position of the first element whose key is equal to key or -1
+     * @param key K
+     * @return int
+     * */
+    public int indexOf(K key) {
+        var table = table();
+        return table.heads[table.slot(key, Table.hash(key))];
+    }
+
+    /**
+     * returns true if an element has a key equal to key
+     * @param key K
+     * @return boolean
+     * */
+    public boolean contains(K key) {
+        return indexOf(key) != NO_POSITION;
+    }
+
+    /**
+     * returns the number of elements whose key is equal to key
+     * @param key K
+     * @return int
+     * */
+    public int count(K key) {
+        var table = table();
+        return table.counts[table.slot(key, Table.hash(key))];
+    }
+
+    /**
+     * returns a view of the elements whose key is equal to key, in the order of the lazySeq,
+     * the elements are mapped only when the view is traversed
+     * @param key K
+     * @return Seq<T>
+     * */
+    public Seq<T> get(K key) {
+        var table = table();
+        var slot = table.slot(key, Table.hash(key));
+        var positions = new int[table.counts[slot]];
+        var position = table.heads[slot];
+        for (var i = 0; i < positions.length; i++) {
+            positions[i] = position;
+            position = table.next[position];
+        }
+        return seq.select(positions, 0, positions.length);
+    }
+
+    @Override
+    public String toString() {
+        return "SeqIndex " + seq.size() + " elements";
+    }
+}
@@ -0,0 +1,132 @@
+package core.classes;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * snapshot of the counters of an instrumented lazySeq (see Seq.instrument(name)):
+ * the number of traversals by entry point and, for each map stage, the number of calls
+ * and the latency measured on a sample of the calls
+ * */
+public final class SeqMetrics {
+    /**
+     * the methods of a lazySeq that evaluate its mapper,
+     * TO_STRING counts toString and writeTo, REDUCE counts the fork/join reductions
+     * */
+    public enum EntryPoint { GET, ITERATOR, STREAM, FOR_EACH, TO_STRING, REDUCE }
+
+    /**
+     * counters of a map stage, index is the position of the stage in the chain of maps
+     * */
+    public static final class StageMetrics {
+        private final int index;
+        private final long invocations;
+        private final long sampledInvocations;
+        private final long sampledNanos;
+        private final long maxNanos;
+
+        StageMetrics(int index, long invocations, long sampledInvocations, long sampledNanos, long maxNanos) {
+            this.index = index;
+            this.invocations = invocations;
+            this.sampledInvocations = sampledInvocations;
+            this.sampledNanos = sampledNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * returns the position of the stage in the chain of maps, starting at 0
+         * @return int
+         * */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * returns the number of calls of the stage function
+         * @return long
+         * */
+        public long invocations() {
+            return invocations;
+        }
+
+        /**
+         * returns the number of calls whose latency was measured
+         * @return long
+         * */
+        public long sampledInvocations() {
+            return sampledInvocations;
+        }
+
+        /**
+         * returns the mean latency of the sampled calls in nanoseconds, or 0 if no call was sampled
+         * @return double
+         * */
+        public double meanNanos() {
+            return sampledInvocations == 0 ? 0 : (double) sampledNanos / sampledInvocations;
+        }
+
+        /**
+         * returns the maximum latency of the sampled calls in nanoseconds
+         * @return long
+         * */
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "stage " + index + ": invocations=" + invocations + ", mean=" + meanNanos() + "ns, max=" + maxNanos + "ns";
+        }
+    }
+
+    private final String name;
+    private final EnumMap<EntryPoint, Long> traversals;
+    private final List<StageMetrics> stages;
+
+    SeqMetrics(String name, EnumMap<EntryPoint, Long> traversals, List<StageMetrics> stages) {
+        this.name = name;
+        this.traversals = traversals;
+        this.stages = List.copyOf(stages);
+    }
+
+    /**
+     * returns the name given to Seq.instrument(name)
+     * @return String
+     * */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * returns the number of calls of the entry point
+     * @param entryPoint EntryPoint
+     * @return long
+     * */
+    public long traversals(EntryPoint entryPoint) {
+        Objects.requireNonNull(entryPoint);
+        return traversals.get(entryPoint);
+    }
+
+    /**
+     * returns the number of calls of each entry point
+     * @return Map<EntryPoint, Long>
+     * */
+    public Map<EntryPoint, Long> traversals() {
+        return Map.copyOf(traversals);
+    }
+
+    /**
+     * returns the counters of the map stages
+     * @return List<StageMetrics>
+     * */
+    public List<StageMetrics> stages() {
+        return stages;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + traversals + " " + stages;
+    }
+}
@@ -0,0 +1,132 @@
+package core.classes;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * publisher of the elements of a lazySeq, each subscription traverses the lazySeq with its own iterator
+ * and maps an element only when the subscriber has requested it.
+ * the elements are sent by a drain loop that runs on the executor, the work-in-progress counter
+ * guarantees that a single thread at a time runs the loop of a subscription
+ * */
+final class SeqPublisher<T> implements Flow.Publisher<T> {
+    private final Seq<T> seq;
+    private final long size; // -1 if the size is not known without pulling the elements
+    private final Executor executor;
+
+    SeqPublisher(Seq<T> seq, long size, Executor executor) {
+        this.seq = seq;
+        this.size = size;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        var subscription = new SeqSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.schedule(); // an empty lazySeq completes without any request
+    }
+
+    private final class SeqSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // only accessed by the drain loop
+        private Iterator<T> iterator;
+        private long emitted;
+
+        private SeqSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("the number of requested elements must be positive " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule(); // so the iterator is released by the drain loop
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            iterator = null;
+        }
+
+        private void drain() {
+            var missed = 1;
+            for (;;) {
+                if (cancelled) {
+                    iterator = null;
+                    return;
+                }
+                var error = invalidRequest;
+                if (error != null) {
+                    terminate();
+                    subscriber.onError(error);
+                    return;
+                }
+                if (emitted == size) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                var requested = demand.get();
+                var sent = 0L;
+                while (sent != requested && !cancelled) {
+                    T element;
+                    try {
+                        if (iterator == null) {
+                            iterator = seq.iterator();
+                        }
+                        if (!iterator.hasNext()) {
+                            terminate();
+                            subscriber.onComplete();
+                            return;
+                        }
+                        element = iterator.next();
+                    } catch (RuntimeException | Error e) {
+                        terminate();
+                        subscriber.onError(e);
+                        return;
+                    }
+                    subscriber.onNext(element);
+                    sent++;
+                    if (++emitted == size) {
+                        break;
+                    }
+                }
+                if (sent != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-sent);
+                }
+                if (emitted == size || sent != 0 && demand.get() != 0) {
+                    continue; // complete now, or keep going while there is still demand
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * read only view of the range [offset, offset + size) of a list,
+ * a slice of a slice is a slice of the original list so views never stack.
+ * a slice created by upTo on a list that is not sized is not exact, size is only an upper bound
+ * and the list is pulled only as far as the elements requested
+ * */
+final class Slice<E> extends AbstractList<E> implements RandomAccess, IndexedSource {
+    private final List<? extends E> list;
+    private final int offset;
+    private final int size;     // maximum size if the slice is not exact
+    private final boolean exact; // false if the list may end before offset + size
+
+    private Slice(List<? extends E> list, int offset, int size, boolean exact) {
+        this.list = list;
+        this.offset = offset;
+        this.size = size;
+        this.exact = exact;
+    }
+
+    /**
+     * returns a view of the range [from, to) of list, the range must be inside the list
+     * */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> of(List<? extends E> list, int from, int to) {
+        if (from == 0 && IndexedSource.isSized(list) && to == list.size()) {
+            return (List<E>) list;
+        }
+        if (list instanceof Slice) {
+            var slice = (Slice<? extends E>) list;
+            return new Slice<>(slice.list, slice.offset + from, to - from, true);
+        }
+        return new Slice<>(list, from, to - from, true);
+    }
+
+    /**
+     * returns a view of the elements of list whose size is the current size of list,
+     * the view does not grow if elements are added to list
+     * */
+    static <E> List<E> fixed(List<? extends E> list) {
+        return new Slice<>(list, 0, list.size(), true);
+    }
+
+    /**
+     * returns a view of the elements of list from from (inclusive) to to (exclusive)
+     * or to the end of the list if it has less elements, the size of the list is not computed if it is not sized
+     * */
+    static <E> List<E> upTo(List<? extends E> list, int from, int to) {
+        if (IndexedSource.isSized(list)) {
+            var size = list.size();
+            return of(list, Math.min(from, size), Math.min(to, size));
+        }
+        if (list instanceof Slice) {
+            var slice = (Slice<? extends E>) list;
+            var start = Math.min(from, slice.size);
+            return new Slice<>(slice.list, slice.offset + start, Math.min(to, slice.size) - start, false);
+        }
+        return new Slice<>(list, from, to - from, false);
+    }
+
+    @Override
+    public E get(int index) {
+        if (exact) {
+            Objects.checkIndex(index, size);
+        } else if (index < 0 || !hasIndex(index)) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size());
+        }
+        return list.get(offset + index);
+    }
+
+    @Override
+    public int size() {
+        if (exact || size == 0 || hasIndex(size - 1)) {
+            return size;
+        }
+        // the list ends before the end of the slice, so its size is known
+        return Math.max(0, list.size() - offset);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0 || !hasIndex(0);
+    }
+
+    @Override
+    public boolean isSized() {
+        return exact || IndexedSource.isSized(list);
+    }
+
+    @Override
+    public boolean hasIndex(int index) {
+        return index < size && (exact || IndexedSource.hasIndex(list, offset + index));
+    }
+
+    @Override
+    public int splitPoint(int from, int to) {
+        if (list instanceof IndexedSource) {
+            return ((IndexedSource) list).splitPoint(offset + from, offset + to) - offset;
+        }
+        return (from + to) >>> 1;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return isSized() ? super.iterator() : IndexedSource.iterator(this);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return isSized() ? super.spliterator() : IndexedSource.spliterator(this);
+    }
+}
@@ -0,0 +1,116 @@
+package core.classes;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * sorted index of the elements of a lazySeq by key, created by Seq.sortedIndexBy(keyExtractor).
+ * the index is built the first time it is queried: the keys are computed once per element
+ * and an int[] of positions is sorted by the keys, a range query is two binary searches
+ * and returns a view of the lazySeq, the elements are not copied.
+ * a lazySeq never changes its size, so the index stays valid as long as it is used with the lazySeq that created it,
+ * but replacing an element of a list wrapped by Seq.view is not seen by an index already built
+ * */
+public final class SortedSeqIndex<K, T> {
+    private final Seq<T> seq;
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final Comparator<Object> comparator;
+    private final boolean parallel;
+    private volatile Table table; // null until the first query
+
+    @SuppressWarnings("unchecked")
+    SortedSeqIndex(Seq<T> seq, Function<? super T, ? extends K> keyExtractor, Comparator<? super K> comparator, boolean parallel) {
+        this.seq = seq;
+        this.keyExtractor = keyExtractor;
+        this.comparator = (Comparator<Object>) comparator;
+        this.parallel = parallel;
+    }
+
+    private static final class Table {
+        private final int[] positions;  // positions of the elements in the order of the keys
+        private final Object[] keys;    // keys in sorted order
+
+        private Table(Object[] elementKeys, Comparator<Object> comparator, boolean parallel) {
+            positions = SortedView.sortIndexes(elementKeys, comparator, parallel);
+            keys = new Object[positions.length];
+            for (var i = 0; i < positions.length; i++) {
+                keys[i] = elementKeys[positions[i]];
+            }
+        }
+    }
+
+    private Table table() {
+        var table = this.table;
+        if (table != null) {
+            return table;
+        }
+        synchronized (this) {
+            if (this.table == null) {
+                this.table = new Table(seq.keys(keyExtractor, parallel), comparator, parallel);
+            }
+            return this.table;
+        }
+    }
+
+    /**
+     * returns the first rank whose key is bigger than key (or bigger or equal if inclusive)
+     * */
+    private int bound(Table table, Object key, boolean inclusive) {
+        var low = 0;
+        var high = table.keys.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            var comparison = comparator.compare(table.keys[mid], key);
+            if (comparison < 0 || (comparison == 0 && !inclusive)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * returns a view of the elements whose key is between lo (inclusive) and hi (exclusive),
+     * in the order of the keys, elements with equal keys stay in the order of the lazySeq
+     * @param lo K
+     * @param hi K
+     * @return Seq<T>
+     * @throws IllegalArgumentException if lo is bigger than hi
+     * */
+    public Seq<T> between(K lo, K hi) {
+        if (comparator.compare(lo, hi) > 0) {
+            throw new IllegalArgumentException("lo must be smaller or equal to hi");
+        }
+        var table = table();
+        var from = bound(table, lo, true);
+        var to = bound(table, hi, true);
+        return seq.select(table.positions, from, to);
+    }
+
+    /**
+     * returns a view of the elements whose key is equal to key, in the order of the lazySeq
+     * @param key K
+     * @return Seq<T>
+     * */
+    public Seq<T> get(K key) {
+        var table = table();
+        var from = bound(table, key, true);
+        var to = bound(table, key, false);
+        return seq.select(table.positions, from, to);
+    }
+
+    /**
+     * returns a view of all the elements in the order of the keys
+     * @return Seq<T>
+     * */
+    public Seq<T> sorted() {
+        var table = table();
+        return seq.select(table.positions, 0, table.positions.length);
+    }
+
+    @Override
+    public String toString() {
+        return "SortedSeqIndex " + seq.size() + " elements";
+    }
+}
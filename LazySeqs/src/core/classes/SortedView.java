@@ -0,0 +1,167 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * read only view of a list in the order of the keys of its elements.
+ * the elements are not copied, the first access computes the keys and sorts an int[] of indexes,
+ * the keys are then dropped and only the permutation is kept
+ * */
+final class SortedView<E> extends AbstractList<E> implements RandomAccess {
+    // ranges smaller than that are sorted by insertion
+    private static final int INSERTION_THRESHOLD = 32;
+    // ranges smaller than that are not split in fork/join tasks by a parallel sort
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final List<? extends E> list;
+    private final Function<Object, Object> key;
+    private final Comparator<Object> comparator;
+    private final boolean parallel;
+    private volatile int[] permutation; // null until the first access
+
+    SortedView(List<? extends E> list, Function<Object, Object> key, Comparator<Object> comparator, boolean parallel) {
+        this.list = list;
+        this.key = key;
+        this.comparator = comparator;
+        this.parallel = parallel;
+    }
+
+    private int[] permutation() {
+        var permutation = this.permutation;
+        if (permutation != null) {
+            return permutation;
+        }
+        synchronized (this) {
+            if (this.permutation == null) {
+                this.permutation = sort();
+            }
+            return this.permutation;
+        }
+    }
+
+    private int[] sort() {
+        var size = list.size();
+        var keys = new Object[size];
+        RangeTask.invoke(size, parallel ? RangeTask.DEFAULT_THRESHOLD : Integer.MAX_VALUE, null, (from, to) -> {
+            for (var index = from; index < to; index++) {
+                keys[index] = key.apply(list.get(index));
+            }
+            return null;
+        }, (left, right) -> null);
+        return sortIndexes(keys, comparator, parallel);
+    }
+
+    /**
+     * returns the indexes of keys sorted by the keys, the sort is stable
+     * */
+    static int[] sortIndexes(Object[] keys, Comparator<Object> comparator, boolean parallel) {
+        var size = keys.length;
+        var indexes = new int[size];
+        for (var index = 0; index < size; index++) {
+            indexes[index] = index;
+        }
+        var sorter = new Sorter(keys, comparator, indexes, new int[size], 0, size);
+        if (parallel && size > PARALLEL_THRESHOLD) {
+            sorter.invoke();
+        } else {
+            sorter.mergeSort(0, size);
+        }
+        return indexes;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, list.size());
+        return list.get(permutation()[index]);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    /**
+     * stable merge sort of the indexes by their keys, the halves of a range are sorted by two tasks
+     * when the sort is parallel
+     * */
+    private static final class Sorter extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] keys;
+        private final Comparator<Object> comparator;
+        private final int[] indexes;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        private Sorter(Object[] keys, Comparator<Object> comparator, int[] indexes, int[] buffer, int from, int to) {
+            this.keys = keys;
+            this.comparator = comparator;
+            this.indexes = indexes;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                mergeSort(from, to);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new Sorter(keys, comparator, indexes, buffer, from, mid),
+                    new Sorter(keys, comparator, indexes, buffer, mid, to));
+            merge(from, mid, to);
+        }
+
+        private int compare(int index1, int index2) {
+            return comparator.compare(keys[index1], keys[index2]);
+        }
+
+        private void mergeSort(int from, int to) {
+            if (to - from <= INSERTION_THRESHOLD) {
+                insertionSort(from, to);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            mergeSort(from, mid);
+            mergeSort(mid, to);
+            merge(from, mid, to);
+        }
+
+        private void insertionSort(int from, int to) {
+            for (var i = from + 1; i < to; i++) {
+                var index = indexes[i];
+                var j = i - 1;
+                for (; j >= from && compare(indexes[j], index) > 0; j--) {
+                    indexes[j + 1] = indexes[j];
+                }
+                indexes[j + 1] = index;
+            }
+        }
+
+        private void merge(int from, int mid, int to) {
+            if (compare(indexes[mid - 1], indexes[mid]) <= 0) {
+                return; // already in order
+            }
+            System.arraycopy(indexes, from, buffer, from, mid - from);
+            var i = from;
+            var j = mid;
+            var k = from;
+            while (i < mid && j < to) {
+                // on equal keys the left index goes first so the sort is stable
+                indexes[k++] = compare(indexes[j], buffer[i]) < 0 ? indexes[j++] : buffer[i++];
+            }
+            while (i < mid) {
+                indexes[k++] = buffer[i++];
+            }
+        }
+    }
+}
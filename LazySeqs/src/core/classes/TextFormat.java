@@ -0,0 +1,229 @@
+package core.classes;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * how the elements of a lazySeq are written as text by Seq.writeTo and Seq.toString:
+ * a prefix, the elements separated by a delimiter and a suffix.
+ * csv() and jsonLines() write one element per line and have no prefix, delimiter or suffix
+ * */
+public final class TextFormat {
+    /**
+     * writes an element
+     * */
+    @FunctionalInterface
+    interface Renderer {
+        void render(Object element, Appendable out) throws IOException;
+    }
+
+    private static final Renderer TO_STRING = (element, out) -> out.append(String.valueOf(element));
+
+    /**
+     * the format of Seq.toString(), "<" + elements separated by ", " + ">"
+     * */
+    public static final TextFormat DEFAULT = of(", ", "<", ">");
+
+    private static final TextFormat CSV = new TextFormat("", "", "", (element, out) -> {
+        csvRecord(element, out);
+        out.append('\n');
+    });
+
+    private static final TextFormat JSON_LINES = new TextFormat("", "", "", (element, out) -> {
+        json(element, out);
+        out.append('\n');
+    });
+
+    private final String delimiter;
+    private final String prefix;
+    private final String suffix;
+    private final Renderer renderer;
+
+    private TextFormat(String delimiter, String prefix, String suffix, Renderer renderer) {
+        this.delimiter = delimiter;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.renderer = renderer;
+    }
+
+    /**
+     * returns a format that writes prefix, the elements (String.valueOf) separated by delimiter then suffix
+     * @param delimiter String
+     * @param prefix String
+     * @param suffix String
+     * @return TextFormat
+     * */
+    public static TextFormat of(String delimiter, String prefix, String suffix) {
+        Objects.requireNonNull(delimiter);
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(suffix);
+        return new TextFormat(delimiter, prefix, suffix, TO_STRING);
+    }
+
+    /**
+     * returns a format that writes each element as a CSV record (RFC 4180) followed by '\n'.
+     * the fields of an Iterable (a List, a Seq returned by chunked...) or of a Map.Entry are separated by ',',
+     * any other element is a single field, a field containing ',', '"' or a line break is quoted
+     * @return TextFormat
+     * */
+    public static TextFormat csv() {
+        return CSV;
+    }
+
+    /**
+     * returns a format that writes each element as a JSON value followed by '\n'.
+     * numbers and booleans are written as is, an Iterable as an array, a Map as an object,
+     * a Map.Entry as an object with a "key" and a "value", the other elements as strings using toString
+     * @return TextFormat
+     * */
+    public static TextFormat jsonLines() {
+        return JSON_LINES;
+    }
+
+    String delimiter() {
+        return delimiter;
+    }
+
+    String prefix() {
+        return prefix;
+    }
+
+    String suffix() {
+        return suffix;
+    }
+
+    void render(Object element, Appendable out) throws IOException {
+        renderer.render(element, out);
+    }
+
+    private static void csvRecord(Object element, Appendable out) throws IOException {
+        if (element instanceof Map.Entry) {
+            var entry = (Map.Entry<?, ?>) element;
+            csvField(entry.getKey(), out);
+            out.append(',');
+            csvField(entry.getValue(), out);
+            return;
+        }
+        if (element instanceof Iterable) {
+            var first = true;
+            for (var field : (Iterable<?>) element) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                csvField(field, out);
+            }
+            return;
+        }
+        csvField(element, out);
+    }
+
+    private static void csvField(Object field, Appendable out) throws IOException {
+        var text = String.valueOf(field);
+        var quoted = false;
+        for (var i = 0; i < text.length() && !quoted; i++) {
+            var c = text.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            out.append(text);
+            return;
+        }
+        out.append('"');
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void json(Object element, Appendable out) throws IOException {
+        if (element == null || element instanceof Boolean || element instanceof Integer || element instanceof Long
+                || element instanceof Short || element instanceof Byte || element instanceof BigInteger
+                || element instanceof BigDecimal) {
+            out.append(String.valueOf(element));
+            return;
+        }
+        if (element instanceof Double || element instanceof Float) {
+            var value = ((Number) element).doubleValue();
+            // JSON has no NaN or infinity
+            out.append(Double.isFinite(value) ? element.toString() : "null");
+            return;
+        }
+        if (element instanceof Map) {
+            out.append('{');
+            var first = true;
+            for (var entry : ((Map<?, ?>) element).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                jsonString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                json(entry.getValue(), out);
+            }
+            out.append('}');
+            return;
+        }
+        if (element instanceof Map.Entry) {
+            var entry = (Map.Entry<?, ?>) element;
+            out.append("{\"key\":");
+            json(entry.getKey(), out);
+            out.append(",\"value\":");
+            json(entry.getValue(), out);
+            out.append('}');
+            return;
+        }
+        if (element instanceof Iterable) {
+            out.append('[');
+            var first = true;
+            for (var value : (Iterable<?>) element) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                json(value, out);
+            }
+            out.append(']');
+            return;
+        }
+        jsonString(element.toString(), out);
+    }
+
+    private static void jsonString(String text, Appendable out) throws IOException {
+        out.append('"');
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
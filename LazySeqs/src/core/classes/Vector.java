@@ -0,0 +1,227 @@
+package core.classes;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * persistent list implemented as a relaxed radix balanced tree (RRB) of branching factor 32.
+ * set and insert copy only the path from the root to the modified leaf, so they run in O(log32 n)
+ * and the new vector shares all the other nodes with the old one.
+ * <p>
+ * a leaf is an Object[] of at most 32 elements or a ListLeaf, a window of at most 32 elements
+ * of an existing list (so copyOf does not copy the elements).
+ * a branch stores its children and the cumulative number of elements of the children,
+ * the child containing an index is found by a radix guess corrected by a short forward scan
+ * (a child of a branch of height h contains at most 32^h elements so the guess is never too far).
+ * */
+final class Vector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+
+    private static final class Branch {
+        private final Object[] children;
+        private final int[] sizes;
+
+        private Branch(Object[] children, int[] sizes) {
+            this.children = children;
+            this.sizes = sizes;
+        }
+    }
+
+    private static final class ListLeaf {
+        private final List<?> list;
+        private final int offset;
+        private final int length;
+
+        private ListLeaf(List<?> list, int offset, int length) {
+            this.list = list;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final Object root;
+    private final int height;
+    private final int size;
+
+    private Vector(Object root, int height, int size) {
+        this.root = root;
+        this.height = height;
+        this.size = size;
+    }
+
+    /**
+     * returns a vector with the elements of the list, the elements are not copied,
+     * the leaves of the vector read them from the list
+     * */
+    static <E> Vector<E> copyOf(List<?> list) {
+        var size = list.size();
+        var nodes = new Object[(size + WIDTH - 1) / WIDTH];
+        for (var i = 0; i < nodes.length; i++) {
+            var offset = i * WIDTH;
+            nodes[i] = new ListLeaf(list, offset, Math.min(WIDTH, size - offset));
+        }
+        if (nodes.length == 0) {
+            return new Vector<>(new Object[0], 0, 0);
+        }
+        var height = 0;
+        while (nodes.length > 1) {
+            var parents = new Object[(nodes.length + WIDTH - 1) / WIDTH];
+            for (var i = 0; i < parents.length; i++) {
+                parents[i] = branch(Arrays.copyOfRange(nodes, i * WIDTH, Math.min(nodes.length, (i + 1) * WIDTH)), height + 1);
+            }
+            nodes = parents;
+            height++;
+        }
+        return new Vector<>(nodes[0], height, size);
+    }
+
+    private static Branch branch(Object[] children, int height) {
+        var sizes = new int[children.length];
+        var total = 0;
+        for (var k = 0; k < children.length; k++) {
+            total += nodeSize(children[k], height - 1);
+            sizes[k] = total;
+        }
+        return new Branch(children, sizes);
+    }
+
+    private static int nodeSize(Object node, int height) {
+        if (height > 0) {
+            var sizes = ((Branch) node).sizes;
+            return sizes[sizes.length - 1];
+        }
+        return node instanceof ListLeaf ? ((ListLeaf) node).length : ((Object[]) node).length;
+    }
+
+    private static Object[] leafArray(Object leaf) {
+        if (leaf instanceof ListLeaf) {
+            var listLeaf = (ListLeaf) leaf;
+            var array = new Object[listLeaf.length];
+            for (var i = 0; i < array.length; i++) {
+                array[i] = listLeaf.list.get(listLeaf.offset + i);
+            }
+            return array;
+        }
+        return ((Object[]) leaf).clone();
+    }
+
+    private static int childIndex(Branch branch, int height, int index) {
+        var last = branch.children.length - 1;
+        var k = Math.min(index >>> (BITS * height), last);
+        while (k < last && branch.sizes[k] <= index) {
+            k++;
+        }
+        return k;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        var node = root;
+        for (var h = height; h > 0; h--) {
+            var branch = (Branch) node;
+            var k = childIndex(branch, h, index);
+            if (k > 0) {
+                index -= branch.sizes[k - 1];
+            }
+            node = branch.children[k];
+        }
+        if (node instanceof ListLeaf) {
+            var leaf = (ListLeaf) node;
+            return (E) leaf.list.get(leaf.offset + index);
+        }
+        return (E) ((Object[]) node)[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns a new vector with the element at index replaced by value
+     * */
+    Vector<E> with(int index, Object value) {
+        Objects.checkIndex(index, size);
+        return new Vector<>(set(root, height, index, value), height, size);
+    }
+
+    private static Object set(Object node, int height, int index, Object value) {
+        if (height == 0) {
+            var leaf = leafArray(node);
+            leaf[index] = value;
+            return leaf;
+        }
+        var branch = (Branch) node;
+        var k = childIndex(branch, height, index);
+        var local = k == 0 ? index : index - branch.sizes[k - 1];
+        var children = branch.children.clone();
+        children[k] = set(children[k], height - 1, local, value);
+        return new Branch(children, branch.sizes);
+    }
+
+    /**
+     * returns a new vector with value inserted at index, index can be size() to append
+     * */
+    Vector<E> insert(int index, Object value) {
+        Objects.checkIndex(index, size + 1);
+        if (size == 0) {
+            return new Vector<>(new Object[] { value }, 0, 1);
+        }
+        var nodes = insert(root, height, index, value, index == size);
+        if (nodes.length == 1) {
+            return new Vector<>(nodes[0], height, size + 1);
+        }
+        return new Vector<>(branch(nodes, height + 1), height + 1, size + 1);
+    }
+
+    // returns the new node, or two nodes if the node had to be split
+    private static Object[] insert(Object node, int height, int index, Object value, boolean atEnd) {
+        if (height == 0) {
+            var leaf = leafArray(node);
+            var elements = new Object[leaf.length + 1];
+            System.arraycopy(leaf, 0, elements, 0, index);
+            elements[index] = value;
+            System.arraycopy(leaf, index, elements, index + 1, leaf.length - index);
+            return split(elements, atEnd, height);
+        }
+        var branch = (Branch) node;
+        var k = childIndex(branch, height, index);
+        var local = k == 0 ? index : index - branch.sizes[k - 1];
+        var nodes = insert(branch.children[k], height - 1, local, value, atEnd);
+        if (nodes.length == 1) {
+            var children = branch.children.clone();
+            children[k] = nodes[0];
+            var sizes = branch.sizes.clone();
+            for (var j = k; j < sizes.length; j++) {
+                sizes[j]++;
+            }
+            return new Object[] { new Branch(children, sizes) };
+        }
+        var children = new Object[branch.children.length + 1];
+        System.arraycopy(branch.children, 0, children, 0, k);
+        children[k] = nodes[0];
+        children[k + 1] = nodes[1];
+        System.arraycopy(branch.children, k + 1, children, k + 2, branch.children.length - k - 1);
+        return split(children, atEnd, height);
+    }
+
+    // splits an overflowing node in two, when appending the left node is kept full so the tree stays dense
+    private static Object[] split(Object[] elements, boolean atEnd, int height) {
+        if (elements.length <= WIDTH) {
+            return new Object[] { height == 0 ? elements : branch(elements, height) };
+        }
+        var middle = atEnd ? WIDTH : elements.length / 2;
+        var left = Arrays.copyOfRange(elements, 0, middle);
+        var right = Arrays.copyOfRange(elements, middle, elements.length);
+        if (height == 0) {
+            return new Object[] { left, right };
+        }
+        return new Object[] { branch(left, height), branch(right, height) };
+    }
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import core.classes.BigSeq;
+import core.classes.RecordCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("static-method")
+public class BigSeqTest {
+  // Q16
+
+  private static final class Point {
+    private final int x;
+    private final int y;
+
+    private Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public String toString() {
+      return "(" + x + ", " + y + ")";
+    }
+  }
+
+  private static final RecordCodec<Point> POINT = RecordCodec.of(8,
+      (buffer, offset) -> new Point(buffer.getInt(offset), buffer.getInt(offset + 4)),
+      (ByteBuffer buffer, int offset, Point p) -> buffer.putInt(offset, p.x).putInt(offset + 4, p.y));
+
+  @Test @Tag("Q16")
+  public void testTabulate() {
+    var seq = BigSeq.tabulate(5, RecordCodec.LONG, i -> i * 10);
+    assertAll(
+        () -> assertEquals(5L, seq.size()),
+        () -> assertEquals(40L, seq.get(4L)),
+        () -> assertEquals("<0, 10, 20, 30, 40>", seq.toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(5L)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1L))
+    );
+  }
+  @Test @Tag("Q16")
+  public void testFrom() {
+    var seq = BigSeq.from(List.of(1.5, 2.5), RecordCodec.DOUBLE);
+    assertEquals(List.of(1.5, 2.5), seq.stream().collect(Collectors.toList()));
+    assertThrows(NullPointerException.class, () -> BigSeq.from(null, RecordCodec.INT));
+  }
+  @Test @Tag("Q16")
+  public void testFixedLayoutCodec() {
+    var seq = BigSeq.tabulate(3, POINT, i -> new Point((int) i, (int) -i));
+    assertEquals("<(0, 0), (1, -1), (2, -2)>", seq.toString());
+    assertThrows(IllegalArgumentException.class, () -> RecordCodec.of(0, POINT::read, POINT::write));
+  }
+  @Test @Tag("Q16")
+  public void testMapIsLazy() {
+    var seq = BigSeq.tabulate(3, RecordCodec.INT, i -> (int) i).map(x -> { fail("should not be called"); return 0; });
+    assertEquals(3L, seq.size());
+  }
+  @Test @Tag("Q16")
+  public void testMap() {
+    var seq = BigSeq.tabulate(3, RecordCodec.INT, i -> (int) i).map(x -> x + 1).map(String::valueOf);
+    var list = new ArrayList<String>();
+    seq.forEach(list::add);
+    assertEquals(List.of("1", "2", "3"), list);
+    assertEquals("1", seq.findFirst().orElseThrow());
+    assertTrue(BigSeq.tabulate(0, RecordCodec.INT, i -> 0).findFirst().isEmpty());
+  }
+  @Test @Tag("Q16")
+  public void testIterator() {
+    var it = BigSeq.tabulate(2, RecordCodec.INT, i -> (int) i).iterator();
+    assertEquals(0, it.next());
+    assertEquals(1, it.next());
+    assertFalse(it.hasNext());
+    assertThrows(NoSuchElementException.class, it::next);
+  }
+  @Test @Tag("Q16")
+  public void testParallelStreamALot() {
+    var seq = BigSeq.tabulate(1_000_000, RecordCodec.LONG, i -> i).map(x -> x * 2);
+    assertEquals(999_999_000_000L, seq.parallelStream().mapToLong(x -> x).sum());
+    var spliterator = seq.stream().spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+    assertNotNull(spliterator.trySplit());
+    assertEquals(500_000, spliterator.estimateSize());
+  }
+}
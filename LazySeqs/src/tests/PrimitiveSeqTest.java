@@ -0,0 +1,173 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import core.classes.DoubleSeq;
+import core.classes.IntSeq;
+import core.classes.LongSeq;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("static-method")
+public class PrimitiveSeqTest {
+  // Q11
+
+  @Test @Tag("Q11")
+  public void testIntSeqGetAndSize() {
+    var seq = IntSeq.of(101, 201, 301);
+    assertAll(
+        () -> assertEquals(3, seq.size()),
+        () -> assertEquals(101, seq.get(0)),
+        () -> assertEquals(301, seq.get(2)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3))
+    );
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqOfCopies() {
+    var array = new int[] { 1, 2 };
+    var seq = IntSeq.of(array);
+    array[0] = 42;
+    assertEquals(1, seq.get(0));
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqNull() {
+    assertAll(
+        () -> assertThrows(NullPointerException.class, () -> IntSeq.of((int[]) null)),
+        () -> assertThrows(NullPointerException.class, () -> IntSeq.of(1).map(null)),
+        () -> assertThrows(NullPointerException.class, () -> IntSeq.of(1).forEach(null))
+    );
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqMapIsLazy() {
+    var seq = IntSeq.of(1, 2).map(x -> { fail("should not be called"); return 0; });
+    assertEquals(2, seq.size());
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqMapCompose() {
+    var seq = IntSeq.of(1, 2, 3).map(x -> x * 2).map(x -> x + 1);
+    assertEquals("<3, 5, 7>", seq.toString());
+    assertEquals(3, seq.findFirst().orElseThrow());
+    assertTrue(IntSeq.of().findFirst().isEmpty());
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqIterator() {
+    var it = IntSeq.of(25, 52).iterator();
+    assertEquals(25, it.nextInt());
+    assertEquals(52, it.nextInt());
+    assertFalse(it.hasNext());
+    assertThrows(NoSuchElementException.class, it::nextInt);
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqForEach() {
+    var list = new ArrayList<Integer>();
+    IntSeq.of(1, 2, 3).map(x -> -x).forEach(list::add);
+    assertEquals(List.of(-1, -2, -3), list);
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqStreamALot() {
+    var array = IntStream.range(0, 1_000_000).toArray();
+    var seq = IntSeq.of(array).map(x -> x * 2);
+    assertArrayEquals(IntStream.range(0, 1_000_000).map(x -> x * 2).toArray(), seq.stream().parallel().toArray());
+    assertTrue(seq.stream().spliterator().hasCharacteristics(Spliterator.SIZED));
+  }
+  @Test @Tag("Q11")
+  public void testIntSeqMapToObjAndBoxed() {
+    var seq = IntSeq.of(1, 2);
+    assertEquals("<a1, a2>", seq.mapToObj(x -> "a" + x).toString());
+    assertEquals(List.of(1, 2), seq.boxed().stream().collect(Collectors.toList()));
+    assertEquals(2, seq.mapToObj(x -> fail("")).size());
+  }
+  @Test @Tag("Q11")
+  public void testLongSeq() {
+    var seq = LongSeq.of(1L << 40, 2).map(x -> x + 1);
+    assertAll(
+        () -> assertEquals((1L << 40) + 1, seq.get(0)),
+        () -> assertEquals("<1099511627777, 3>", seq.toString()),
+        () -> assertEquals((1L << 40) + 4, seq.stream().sum()),
+        () -> assertEquals(List.of((1L << 40) + 1, 3L), seq.boxed().stream().collect(Collectors.toList()))
+    );
+  }
+  @Test @Tag("Q11")
+  public void testDoubleSeq() {
+    var seq = DoubleSeq.of(1.5, 2.5).map(x -> x * 2);
+    assertAll(
+        () -> assertEquals(3.0, seq.get(0)),
+        () -> assertEquals("<3.0, 5.0>", seq.toString()),
+        () -> assertEquals(8.0, seq.stream().sum()),
+        () -> assertEquals(5.0, seq.iterator().nextDouble() + 2)
+    );
+  }
+
+  @Test @Tag("Q15")
+  public void testIntSeqRange() {
+    var seq = IntSeq.range(-2, 3).map(x -> x * x);
+    assertAll(
+        () -> assertEquals(5, seq.size()),
+        () -> assertEquals(4, seq.get(0)),
+        () -> assertEquals("<4, 1, 0, 1, 4>", seq.toString()),
+        () -> assertEquals(10, seq.stream().sum()),
+        () -> assertEquals(4, seq.iterator().nextInt()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(5)),
+        () -> assertThrows(IllegalArgumentException.class, () -> IntSeq.range(1, 0))
+    );
+  }
+  @Test @Tag("Q15")
+  public void testIntSeqRangeALot() {
+    var seq = IntSeq.range(0, 10_000_000);
+    assertEquals(49_999_995_000_000L, seq.stream().parallel().asLongStream().sum());
+  }
+
+
+  // Q24
+
+  @Test @Tag("Q24")
+  public void testIntSeqSumMinMax() {
+    var seq = IntSeq.range(0, 100_000).map(x -> x - 50_000);
+    assertAll(
+        () -> assertEquals(IntStream.range(0, 100_000).map(x -> x - 50_000).sum(), seq.sum()),
+        () -> assertEquals(-50_000, seq.min().getAsInt()),
+        () -> assertEquals(49_999, seq.max().getAsInt()),
+        () -> assertTrue(IntSeq.of().min().isEmpty()),
+        () -> assertEquals(0, IntSeq.of().sum())
+    );
+  }
+
+  @Test @Tag("Q24")
+  public void testLongSeqSumMinMax() {
+    var values = new long[100_000];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = i * 3L;
+    }
+    var seq = LongSeq.of(values);
+    assertAll(
+        () -> assertEquals(3L * 99_999 * 100_000 / 2, seq.sum()),
+        () -> assertEquals(0, seq.min().getAsLong()),
+        () -> assertEquals(299_997, seq.max().getAsLong()),
+        () -> assertTrue(LongSeq.of().max().isEmpty())
+    );
+  }
+
+  @Test @Tag("Q24")
+  public void testDoubleSeqSumMinMax() {
+    var seq = DoubleSeq.of(1.5, -2.0, 4.0).map(x -> x * 2);
+    assertAll(
+        () -> assertEquals(7.0, seq.sum()),
+        () -> assertEquals(-4.0, seq.min().getAsDouble()),
+        () -> assertEquals(8.0, seq.max().getAsDouble()),
+        () -> assertTrue(DoubleSeq.of().min().isEmpty())
+    );
+  }
+}
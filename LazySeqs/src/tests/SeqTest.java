@@ -9,27 +9,59 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import core.classes.ElementCodec;
+import core.classes.MemoPolicy;
+import core.classes.RecordCodec;
 import core.classes.Seq;
+import core.classes.SeqBuffer;
+import core.classes.SeqMetrics;
+import core.classes.TextFormat;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 @SuppressWarnings("static-method")
 public class SeqTest {
@@ -553,4 +585,1803 @@ public class SeqTest {
     assertNotNull(newSpliterator);
     assertEquals(42, StreamSupport.stream(newSpliterator,false).findFirst().orElseThrow());
   }
-}
\ No newline at end of file
+
+  // Q10
+
+  private static final class Counter {
+    private final AtomicInteger count = new AtomicInteger();
+    <T> T apply(T value) {
+      count.incrementAndGet();
+      return value;
+    }
+    int count() {
+      return count.get();
+    }
+  }
+
+  @Test @Tag("Q10")
+  public void testMemoizeMapperCalledOncePerIndex() {
+    var counter = new Counter();
+    var seq = Seq.of(1, 2, 3).map(counter::apply).memoize();
+    seq.get(1);
+    seq.get(1);
+    seq.forEach(__ -> {});
+    seq.iterator().forEachRemaining(__ -> {});
+    assertEquals(List.of(1, 2, 3), seq.stream().collect(toUnmodifiableList()));
+    assertEquals("<1, 2, 3>", seq.toString());
+    assertEquals(3, counter.count());
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeSizeDoesNotCallMapper() {
+    var seq = Seq.of(42, 777).map(x -> { fail("should not be called"); return null; }).memoize();
+    assertEquals(2, seq.size());
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeNullPolicy() {
+    assertThrows(NullPointerException.class, () -> Seq.of(1).memoize(null));
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeGetOutOfBounds() {
+    var seq = Seq.of(24, 36).map(__ -> fail("")).memoize();
+    assertAll(
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(2))
+    );
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeNullValues() {
+    var counter = new Counter();
+    var seq = Seq.of(1, 2).map(x -> counter.apply((Object) null)).memoize();
+    assertNull(seq.get(0));
+    assertNull(seq.get(0));
+    assertEquals(1, counter.count());
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeStats() {
+    var seq = Seq.of("a", "b", "c").memoize();
+    seq.get(0);
+    seq.get(0);
+    seq.get(2);
+    var stats = seq.memoStats().orElseThrow();
+    assertEquals(1, stats.hits());
+    assertEquals(2, stats.misses());
+    assertTrue(Seq.of(1).memoStats().isEmpty());
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeMapAfterIsStillLazy() {
+    var counter = new Counter();
+    var seq = Seq.of(1, 2).map(counter::apply).memoize().map(x -> x * 10);
+    assertEquals(2, seq.size());
+    assertEquals(0, counter.count());
+    assertEquals("<10, 20>", seq.toString());
+    assertEquals("<10, 20>", seq.toString());
+    assertEquals(2, counter.count());
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeConcurrentSameInstance() {
+    var list = range(0, 100_000).boxed().collect(toUnmodifiableList());
+    var seq = Seq.from(list).map(x -> new Object()).memoize();
+    var first = seq.stream().parallel().collect(toUnmodifiableList());
+    var second = seq.stream().parallel().collect(toUnmodifiableList());
+    for (var i = 0; i < first.size(); i++) {
+      assertTrue(first.get(i) == second.get(i));
+    }
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeWindowEvicts() {
+    var counter = new Counter();
+    var seq = Seq.from(range(0, 100).boxed().collect(toUnmodifiableList()))
+        .map(counter::apply).memoize(MemoPolicy.window(8));
+    seq.forEach(__ -> {});
+    seq.forEach(__ -> {});
+    assertEquals(200, counter.count());
+    seq.get(99);
+    seq.get(99);
+    assertEquals(200, counter.count());
+    assertEquals(List.of(0, 1, 2), List.of(seq.get(0), seq.get(1), seq.get(2)));
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeWindowConcurrentSameInstance() throws InterruptedException {
+    for (var round = 0; round < 200; round++) {
+      var seq = Seq.range(0, 64).map(x -> new Object()).memoize(MemoPolicy.window(64));
+      var results = new Object[4];
+      var start = new CountDownLatch(1);
+      var threads = new Thread[results.length];
+      for (var i = 0; i < threads.length; i++) {
+        var id = i;
+        threads[i] = new Thread(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          results[id] = seq.get(5);
+        });
+        threads[i].start();
+      }
+      start.countDown();
+      for (var thread : threads) {
+        thread.join();
+      }
+      for (var result : results) {
+        assertSame(results[0], result);
+      }
+      assertSame(results[0], seq.get(5));
+    }
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeOnInfiniteIterator() {
+    for (var policy : List.of(MemoPolicy.full(), MemoPolicy.soft(), MemoPolicy.window(64))) {
+      assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        var iterator = new CountingIterator(Integer.MAX_VALUE);
+        var seq = Seq.fromIterator(iterator, 16, false).map(x -> x * 2).memoize(policy);
+        assertEquals(0, iterator.next);
+        assertEquals(200, seq.get(100));
+        assertEquals(200, seq.get(100));
+        assertEquals(List.of(0, 2, 4), seq.stream().limit(3).collect(toUnmodifiableList()));
+        assertEquals(0, seq.iterator().next());
+        assertTrue(iterator.next < 200);
+      });
+    }
+    var small = Seq.fromIterator(List.of(1, 2, 3).iterator(), 2, false).memoize();
+    assertEquals("<1, 2, 3>", small.toString());
+    assertEquals(3, small.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> small.get(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> small.get(-1));
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeWindowInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> MemoPolicy.window(0));
+  }
+  @Test @Tag("Q10")
+  public void testMemoizeSoft() {
+    var counter = new Counter();
+    var seq = Seq.of(1, 2, 3).map(counter::apply).memoize(MemoPolicy.soft());
+    assertEquals("<1, 2, 3>", seq.toString());
+    assertEquals("<1, 2, 3>", seq.toString());
+    assertEquals(List.of(1, 2, 3), seq.stream().collect(toUnmodifiableList()));
+  }
+
+  // Q12
+
+  @Test @Tag("Q12")
+  public void testMapDeepChain() {
+    var seq = Seq.of(0, 1, 2);
+    for (var i = 0; i < 10_000; i++) {
+      seq = seq.map(x -> x + 1);
+    }
+    assertEquals("<10000, 10001, 10002>", seq.toString());
+    assertEquals(10_001, seq.get(1));
+  }
+  @Test @Tag("Q12")
+  public void testMapChainFused() {
+    var seq = Seq.range(0, 5_000);
+    var expected = IntStream.range(0, 5_000);
+    for (var i = 0; i < 23; i++) {
+      var k = i;
+      seq = seq.map(x -> x * 3 + k);
+      expected = expected.map(x -> x * 3 + k);
+    }
+    var list = expected.boxed().collect(toUnmodifiableList());
+    assertEquals(list, seq.stream().collect(toUnmodifiableList()));
+    assertEquals(list, seq.stream().collect(toUnmodifiableList()));
+    assertEquals(list.get(4_999), seq.get(4_999));
+    var updated = seq.with(0, 42).map(x -> x + 1);
+    assertEquals(43, updated.get(0));
+    assertEquals(list.get(1) + 1, updated.stream().skip(1).findFirst().orElseThrow());
+  }
+  @Test @Tag("Q12")
+  public void testMapChainDoesNotChangeSource() {
+    var seq = Seq.of(1, 2);
+    var seq2 = seq.map(x -> x * 2);
+    var seq3 = seq2.map(x -> x + 1);
+    var seq4 = seq2.map(x -> x - 1);
+    assertAll(
+        () -> assertEquals("<1, 2>", seq.toString()),
+        () -> assertEquals("<2, 4>", seq2.toString()),
+        () -> assertEquals("<3, 5>", seq3.toString()),
+        () -> assertEquals("<1, 3>", seq4.toString())
+    );
+  }
+  @Test @Tag("Q12")
+  public void testConstructorWithMapper() {
+    var seq = new Seq<>(List.of("1", "2"), o -> Integer.parseInt((String) o)).map(x -> x * 3);
+    assertEquals(List.of(3, 6), seq.stream().collect(toUnmodifiableList()));
+  }
+
+  // Q13
+
+  @Test @Tag("Q13")
+  public void testParallelStream() {
+    var list = range(0, 1_000_000).boxed().collect(toUnmodifiableList());
+    var seq = Seq.from(list).map(x -> x * 2);
+    assertAll(
+        () -> assertTrue(seq.parallelStream().isParallel()),
+        () -> assertTrue(seq.stream(true).isParallel()),
+        () -> assertFalse(seq.stream(false).isParallel()),
+        () -> assertEquals(999_999_000_000L, seq.parallelStream().mapToLong(x -> x).sum()),
+        () -> assertEquals(seq.stream().collect(toUnmodifiableList()), seq.parallelStream().collect(toUnmodifiableList()))
+    );
+  }
+  @Test @Tag("Q13")
+  public void testStreamSpliteratorSubsized() {
+    var spliterator = Seq.of("foo").stream().spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+  }
+  @Test @Tag("Q13")
+  public void testStreamSpliteratorLeafSize() {
+    var list = range(0, 1_000).boxed().collect(toUnmodifiableList());
+    var spliterator = Seq.from(list).stream(false, 300).spliterator();
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(500, prefix.estimateSize());
+    assertNull(prefix.trySplit());
+    assertNull(spliterator.trySplit());
+  }
+  @Test @Tag("Q13")
+  public void testStreamSpliteratorLeafSizeOne() {
+    var spliterator = Seq.of(1, 2).stream(false, 1).spliterator();
+    assertNotNull(spliterator.trySplit());
+    assertNull(spliterator.trySplit());
+  }
+  @Test @Tag("Q13")
+  public void testStreamInvalidLeafSize() {
+    assertThrows(IllegalArgumentException.class, () -> Seq.of(1).stream(true, 0));
+  }
+  @Test @Tag("Q13")
+  public void testStreamSpliteratorForEachRemaining() {
+    var spliterator = Seq.of(1, 2, 3).map(x -> x * 10).stream().spliterator();
+    assertTrue(spliterator.tryAdvance(x -> assertEquals(10, x)));
+    var list = new ArrayList<Integer>();
+    spliterator.forEachRemaining(list::add);
+    assertEquals(List.of(20, 30), list);
+    assertEquals(0, spliterator.estimateSize());
+    assertFalse(spliterator.tryAdvance(__ -> fail("")));
+  }
+
+  // Q14
+
+  @Test @Tag("Q14")
+  public void testWrap() {
+    var array = new String[] { "foo", "bar", "baz" };
+    var seq = Seq.wrap(array).map(String::toUpperCase);
+    assertEquals(3, seq.size());
+    assertEquals("<FOO, BAR, BAZ>", seq.toString());
+    assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3));
+  }
+  @Test @Tag("Q14")
+  public void testWrapDoesNotCopy() {
+    var array = new Integer[] { 1, 2 };
+    var seq = Seq.wrap(array);
+    array[0] = 42;
+    assertEquals(42, seq.get(0));
+  }
+  @Test @Tag("Q14")
+  public void testWrapRange() {
+    var array = new Integer[] { 1, 2, 3, 4, 5 };
+    var seq = Seq.wrap(array, 1, 4);
+    assertAll(
+        () -> assertEquals("<2, 3, 4>", seq.toString()),
+        () -> assertEquals(List.of(2, 3, 4), seq.stream().collect(toUnmodifiableList())),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> Seq.wrap(array, 3, 6)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> Seq.wrap(array, 3, 2)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.wrap(null))
+    );
+  }
+  @Test @Tag("Q14")
+  public void testView() {
+    var list = new ArrayList<>(List.of(4, 5, 8));
+    var seq = Seq.view(list);
+    list.set(0, 10);
+    assertEquals("<10, 5, 8>", seq.toString());
+    assertEquals(3, seq.size());
+    var sorted = seq.sortedBy(x -> x);
+    var memoized = seq.memoize();
+    assertEquals("<5, 8, 10>", sorted.toString());
+    assertEquals("<10, 5, 8>", memoized.toString());
+    list.add(13);
+    assertAll(
+        () -> assertEquals(3, seq.size()),
+        () -> assertEquals("<10, 5, 8>", seq.toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3)),
+        () -> assertEquals("<5, 8, 10>", sorted.toString()),
+        () -> assertEquals("<10, 5, 8>", memoized.toString()),
+        () -> assertEquals("<13>", Seq.view(list).skip(3).toString())
+    );
+  }
+  @Test @Tag("Q14")
+  public void testViewNotRandomAccess() {
+    assertThrows(IllegalArgumentException.class, () -> Seq.view(new LinkedList<>(List.of(1))));
+  }
+  @Test @Tag("Q14")
+  public void testSeqBufferCopyOnFirstMutation() {
+    var buffer = new SeqBuffer<Integer>(2);
+    buffer.add(1);
+    buffer.add(2);
+    var seq = buffer.toSeq();
+    buffer.set(0, 42);
+    buffer.add(3);
+    var seq2 = buffer.toSeq();
+    assertAll(
+        () -> assertEquals("<1, 2>", seq.toString()),
+        () -> assertEquals("<42, 2, 3>", seq2.toString()),
+        () -> assertEquals(3, buffer.size()),
+        () -> assertEquals(42, buffer.get(0)),
+        () -> assertThrows(NullPointerException.class, () -> buffer.add(null)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(3, 1))
+    );
+  }
+  @Test @Tag("Q14")
+  public void testSeqBufferGrows() {
+    var buffer = new SeqBuffer<Integer>(0);
+    range(0, 10_000).forEach(buffer::add);
+    assertEquals(range(0, 10_000).boxed().collect(toUnmodifiableList()), buffer.toSeq().stream().collect(toUnmodifiableList()));
+  }
+
+  // Q15
+
+  @Test @Tag("Q15")
+  public void testRange() {
+    var seq = Seq.range(3, 7);
+    assertAll(
+        () -> assertEquals(4, seq.size()),
+        () -> assertEquals(3, seq.get(0)),
+        () -> assertEquals(6, seq.get(3)),
+        () -> assertEquals("<3, 4, 5, 6>", seq.toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(4)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1)),
+        () -> assertEquals(0, Seq.range(5, 5).size()),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.range(5, 4)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.range(Integer.MIN_VALUE, Integer.MAX_VALUE))
+    );
+  }
+  @Test @Tag("Q15")
+  public void testRangeALot() {
+    var seq = Seq.range(0, 1_000_000).map(x -> x * 2);
+    assertEquals(range(0, 1_000_000).map(x -> x * 2).boxed().collect(toUnmodifiableList()),
+        seq.parallelStream().collect(toUnmodifiableList()));
+    assertNotNull(seq.stream().spliterator().trySplit());
+  }
+  @Test @Tag("Q15")
+  public void testTabulate() {
+    var seq = Seq.tabulate(3, i -> "e" + i);
+    var list = new ArrayList<String>();
+    seq.forEach(list::add);
+    assertEquals(List.of("e0", "e1", "e2"), list);
+    assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3));
+  }
+  @Test @Tag("Q15")
+  public void testTabulateIsLazy() {
+    var seq = Seq.tabulate(10, i -> fail("should not be called"));
+    assertEquals(10, seq.size());
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.tabulate(-1, i -> i)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.tabulate(1, null))
+    );
+  }
+
+  // Q17
+
+  private static Path writeInts(Path directory, int count) throws IOException {
+    var path = directory.resolve("ints.bin");
+    try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      for (var i = 0; i < count; i++) {
+        output.writeInt(i);
+      }
+    }
+    return path;
+  }
+
+  @Test @Tag("Q17")
+  public void testMapFile(@TempDir Path directory) throws IOException {
+    var seq = Seq.mapFile(writeInts(directory, 5), RecordCodec.INT).map(x -> x * 10);
+    assertAll(
+        () -> assertEquals(5, seq.size()),
+        () -> assertEquals(30, seq.get(3)),
+        () -> assertEquals("<0, 10, 20, 30, 40>", seq.toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(5))
+    );
+  }
+  @Test @Tag("Q17")
+  public void testMapFileLittleEndian(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("longs.bin");
+    var buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN).putLong(7).putLong(-3);
+    Files.write(path, buffer.array());
+    var seq = Seq.mapFile(path, RecordCodec.LONG, ByteOrder.LITTLE_ENDIAN);
+    assertEquals(List.of(7L, -3L), seq.stream().collect(toUnmodifiableList()));
+  }
+  @Test @Tag("Q17")
+  public void testMapFileMapperIsLazy(@TempDir Path directory) throws IOException {
+    var seq = Seq.mapFile(writeInts(directory, 3), RecordCodec.INT).map(__ -> fail(""));
+    assertEquals(3, seq.size());
+  }
+  @Test @Tag("Q17")
+  public void testMapFileInvalidSize(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("bad.bin");
+    Files.write(path, new byte[] { 1, 2, 3 });
+    assertThrows(IllegalArgumentException.class, () -> Seq.mapFile(path, RecordCodec.INT));
+  }
+  @Test @Tag("Q17")
+  public void testMapFileSplitsOnPages(@TempDir Path directory) throws IOException {
+    var seq = Seq.mapFile(writeInts(directory, 1_000_000), RecordCodec.INT);
+    var spliterator = seq.stream().spliterator();
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(0, prefix.estimateSize() * Integer.BYTES % 4096);
+    assertEquals(1_000_000, prefix.estimateSize() + spliterator.estimateSize());
+    assertEquals(499_999_500_000L, seq.parallelStream().mapToLong(x -> x).sum());
+  }
+
+  // Q18
+
+  private static final class CountingIterator implements Iterator<Integer> {
+    private final int end;
+    private int next;
+
+    private CountingIterator(int end) {
+      this.end = end;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < end;
+    }
+
+    @Override
+    public Integer next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return next++;
+    }
+  }
+
+  @Test @Tag("Q18")
+  public void testFromIteratorPullsOnDemand() {
+    var iterator = new CountingIterator(10_000);
+    var seq = Seq.fromIterator(iterator, 100, false);
+    assertEquals(0, iterator.next);
+    assertEquals(150, seq.get(150));
+    assertEquals(200, iterator.next);
+    assertEquals(0, seq.findFirst().orElseThrow());
+    assertEquals(200, iterator.next);
+    assertEquals(10_000, seq.size());
+    assertEquals(10_000, iterator.next);
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorTraversalsDoNotNeedSize() {
+    var iterator = new CountingIterator(Integer.MAX_VALUE);
+    var seq = Seq.fromIterator(iterator, 10, false).map(x -> x * 2);
+    assertEquals(List.of(0, 2, 4), seq.stream().limit(3).collect(toUnmodifiableList()));
+    var it = seq.iterator();
+    assertEquals(0, it.next());
+    assertEquals(2, it.next());
+    assertTrue(iterator.next < 100);
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorTraversals() {
+    var seq = Seq.fromIterator(List.of(1, 2, 3).iterator()).map(x -> x + 1);
+    var list = new ArrayList<Integer>();
+    seq.forEach(list::add);
+    assertAll(
+        () -> assertEquals(List.of(2, 3, 4), list),
+        () -> assertEquals("<2, 3, 4>", seq.toString()),
+        () -> assertEquals(List.of(2, 3, 4), seq.stream().collect(toUnmodifiableList())),
+        () -> assertEquals(List.of(2, 3, 4), seq.parallelStream().collect(toUnmodifiableList())),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1))
+    );
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorEmpty() {
+    var seq = Seq.fromIterator(List.of().iterator()).map(__ -> fail(""));
+    assertTrue(seq.findFirst().isEmpty());
+    assertEquals("<>", seq.toString());
+    assertEquals(0, seq.size());
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorInvalid() {
+    assertAll(
+        () -> assertThrows(NullPointerException.class, () -> Seq.fromIterator(null)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.fromIterator(List.of().iterator(), 0, false))
+    );
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorSinglePass() {
+    var seq = Seq.fromIterator(new CountingIterator(1_000), 10, true);
+    var sum = 0L;
+    for (var value : seq) {
+      sum += value;
+    }
+    assertEquals(499_500L, sum);
+    assertThrows(IllegalStateException.class, () -> seq.get(0));
+    assertThrows(IllegalStateException.class, () -> seq.toString(3));
+    assertEquals(1_000, seq.size());
+  }
+  @Test @Tag("Q18")
+  public void testFromIteratorSinglePassLongStream() {
+    var seq = Seq.fromIterator(new CountingIterator(Integer.MAX_VALUE), 1, true);
+    var it = seq.iterator();
+    var sum = 0L;
+    for (var i = 0; i < 1_000_000; i++) {
+      sum += it.next();
+    }
+    assertEquals(499_999_500_000L, sum);
+    assertEquals(1_000_000, seq.get(1_000_000));
+    assertThrows(IllegalStateException.class, () -> seq.get(999_999));
+    assertEquals(1_000_000, it.next());
+  }
+  @Test @Tag("Q18")
+  public void testLines(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("lines.txt");
+    Files.write(path, List.of("foo", "bar", "baz"));
+    var seq = Seq.lines(path).map(String::length);
+    assertEquals(3, seq.get(1));
+    assertEquals(3, seq.size());
+    assertEquals("<3, 3, 3>", seq.toString());
+    assertEquals(List.of("foo", "bar", "baz"), Seq.lines(path, true).stream().collect(toUnmodifiableList()));
+  }
+  @Test @Tag("Q18")
+  public void testLinesFromReader(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("lines.txt");
+    Files.write(path, List.of("foo", "bar", "baz"));
+    try (var reader = Files.newBufferedReader(path)) {
+      var seq = Seq.lines(reader, false).map(String::toUpperCase);
+      assertEquals("FOO", seq.get(0));
+      assertEquals("<FOO, BAR, BAZ>", seq.toString());
+      assertEquals(-1, reader.read()); // still open, the lazySeq does not close it
+    }
+    assertThrows(NullPointerException.class, () -> Seq.lines((BufferedReader) null, false));
+  }
+
+  // Q19
+
+  @Test @Tag("Q19")
+  public void testSubSeq() {
+    var seq = Seq.range(0, 10).map(x -> x * 10).subSeq(2, 5);
+    assertAll(
+        () -> assertEquals(3, seq.size()),
+        () -> assertEquals(20, seq.get(0)),
+        () -> assertEquals("<20, 30, 40>", seq.toString()),
+        () -> assertEquals(List.of(20, 30, 40), seq.stream().collect(toUnmodifiableList())),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(3)),
+        () -> assertEquals("<30>", seq.subSeq(1, 2).toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.subSeq(2, 4)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.subSeq(2, 1))
+    );
+  }
+  @Test @Tag("Q19")
+  public void testSubSeqIsAView() {
+    var array = new Integer[] { 1, 2, 3 };
+    var seq = Seq.wrap(array).subSeq(1, 3);
+    array[2] = 42;
+    assertEquals("<2, 42>", seq.toString());
+  }
+  @Test @Tag("Q19")
+  public void testSkipAndLimit() {
+    var seq = Seq.of(1, 2, 3, 4);
+    assertAll(
+        () -> assertEquals("<3, 4>", seq.skip(2).toString()),
+        () -> assertEquals("<>", seq.skip(10).toString()),
+        () -> assertEquals("<1, 2>", seq.limit(2).toString()),
+        () -> assertEquals("<1, 2, 3, 4>", seq.limit(10).toString()),
+        () -> assertEquals("<2, 3>", seq.skip(1).limit(2).toString()),
+        () -> assertThrows(IllegalArgumentException.class, () -> seq.skip(-1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> seq.limit(-1))
+    );
+  }
+  @Test @Tag("Q19")
+  public void testSkipAndLimitOnInfiniteIterator() {
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      var iterator = new CountingIterator(Integer.MAX_VALUE);
+      var seq = Seq.fromIterator(iterator, 16, false).map(x -> x * 10);
+      var limited = seq.limit(10);
+      assertAll(
+          () -> assertEquals(10, limited.size()),
+          () -> assertEquals("<0, 10, 20, ...>", limited.toString(3)),
+          () -> assertEquals(List.of(50, 60, 70), seq.skip(5).limit(3).stream().collect(toUnmodifiableList())),
+          () -> assertEquals("<20, 30>", seq.subSeq(2, 4).toString()),
+          () -> assertEquals(90, limited.get(9)),
+          () -> assertThrows(IndexOutOfBoundsException.class, () -> limited.get(10)),
+          () -> assertTrue(iterator.next < 100)
+      );
+    });
+    var small = Seq.fromIterator(List.of(1, 2, 3).iterator(), 2, false);
+    assertAll(
+        () -> assertEquals("<1, 2, 3>", small.limit(10).toString()),
+        () -> assertEquals(3, small.limit(10).size()),
+        () -> assertEquals("<3>", small.skip(2).toString()),
+        () -> assertEquals(0, small.skip(5).size()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> small.subSeq(1, 5))
+    );
+  }
+  @Test @Tag("Q19")
+  public void testConcat() {
+    var seq = Seq.concat(Seq.of(1, 2), Seq.<Integer>of(), Seq.of("3", "4").map(Integer::parseInt), Seq.of(5));
+    assertAll(
+        () -> assertEquals(5, seq.size()),
+        () -> assertEquals("<1, 2, 3, 4, 5>", seq.toString()),
+        () -> assertEquals(3, seq.get(2)),
+        () -> assertEquals(5, seq.get(4)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(5)),
+        () -> assertEquals(List.of(2, 4, 6, 8, 10), seq.map(x -> x * 2).stream().collect(toUnmodifiableList())),
+        () -> assertEquals("<>", Seq.concat().toString())
+    );
+  }
+  @Test @Tag("Q19")
+  public void testConcatIsLazy() {
+    var seq = Seq.concat(Seq.of(1).map(__ -> fail("")), Seq.of(2).map(__ -> fail("")));
+    assertEquals(2, seq.size());
+  }
+  @Test @Tag("Q19")
+  public void testConcatManyShards() {
+    var shards = new ArrayList<Seq<Integer>>();
+    for (var i = 0; i < 1_000; i++) {
+      shards.add(Seq.range(i * 1_000, (i + 1) * 1_000));
+    }
+    var seq = Seq.concat(Seq.concat(shards.subList(0, 500).toArray(Seq[]::new)),
+        Seq.concat(shards.subList(500, 1_000).toArray(Seq[]::new)));
+    assertEquals(range(0, 1_000_000).boxed().collect(toUnmodifiableList()), seq.parallelStream().collect(toUnmodifiableList()));
+    for (var i = 0; i < 1_000_000; i += 999) {
+      assertEquals(i, seq.get(i));
+    }
+  }
+  @Test @Tag("Q19")
+  public void testConcatSplitsOnPieces() {
+    var seq = Seq.concat(Seq.range(0, 3_000), Seq.range(0, 7_000));
+    var spliterator = seq.stream().spliterator();
+    var prefix = spliterator.trySplit();
+    assertEquals(3_000, prefix.estimateSize());
+    assertEquals(7_000, spliterator.estimateSize());
+  }
+
+  // Q20
+
+  @Test @Tag("Q20")
+  public void testWith() {
+    var seq = Seq.of(1, 2, 3);
+    var seq2 = seq.with(1, 42);
+    assertAll(
+        () -> assertEquals("<1, 2, 3>", seq.toString()),
+        () -> assertEquals("<1, 42, 3>", seq2.toString()),
+        () -> assertEquals("<1, 42, 7>", seq2.with(2, 7).toString()),
+        () -> assertEquals("<1, 42, 3>", seq2.toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.with(3, 0)),
+        () -> assertThrows(NullPointerException.class, () -> seq.with(0, null))
+    );
+  }
+  @Test @Tag("Q20")
+  public void testAppendPrependInsertAt() {
+    var seq = Seq.<Integer>of();
+    var seq2 = seq.append(2).append(3).prepend(1).insertAt(1, 10).insertAt(4, 20);
+    assertAll(
+        () -> assertEquals("<>", seq.toString()),
+        () -> assertEquals("<1, 10, 2, 3, 20>", seq2.toString()),
+        () -> assertEquals(5, seq2.size()),
+        () -> assertEquals(List.of(1, 10, 2, 3, 20), seq2.stream().collect(toUnmodifiableList())),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq2.insertAt(6, 0)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq2.insertAt(-1, 0))
+    );
+  }
+  @Test @Tag("Q20")
+  public void testPersistentUpdatesOnMappedSeq() {
+    var seq = Seq.of(1, 2, 3).map(x -> x * 10);
+    var seq2 = seq.with(1, 99);
+    var seq3 = seq2.map(x -> x + 1);
+    var seq4 = seq3.with(0, 5).append(6);
+    assertAll(
+        () -> assertEquals("<10, 20, 30>", seq.toString()),
+        () -> assertEquals("<10, 99, 30>", seq2.toString()),
+        () -> assertEquals("<11, 100, 31>", seq3.toString()),
+        () -> assertEquals("<5, 100, 31, 6>", seq4.toString()),
+        () -> assertEquals("<10, 99, 30, 7>", seq2.append(7).toString())
+    );
+  }
+  @Test @Tag("Q20")
+  public void testPersistentUpdatesDoNotCallMapper() {
+    var seq = Seq.of(1, 2, 3).map(x -> { fail("should not be called"); return 0; });
+    var seq2 = seq.with(0, 1).append(2).prepend(3).insertAt(2, 4);
+    assertEquals(6, seq2.size());
+    assertEquals(3, seq2.get(0));
+    assertEquals(4, seq2.get(2));
+  }
+  @Test @Tag("Q20")
+  public void testPersistentUpdatesALot() {
+    var random = new Random(0);
+    var model = new ArrayList<Integer>(range(0, 5_000).boxed().collect(toUnmodifiableList()));
+    var seq = Seq.range(0, 5_000);
+    var versions = new ArrayList<Seq<Integer>>();
+    var snapshots = new ArrayList<List<Integer>>();
+    for (var i = 0; i < 20_000; i++) {
+      switch (random.nextInt(4)) {
+        case 0:
+          var index = random.nextInt(model.size());
+          model.set(index, -i);
+          seq = seq.with(index, -i);
+          break;
+        case 1:
+          model.add(i);
+          seq = seq.append(i);
+          break;
+        case 2:
+          model.add(0, i);
+          seq = seq.prepend(i);
+          break;
+        default:
+          var position = random.nextInt(model.size() + 1);
+          model.add(position, i);
+          seq = seq.insertAt(position, i);
+      }
+      if (i % 2_000 == 0) {
+        versions.add(seq);
+        snapshots.add(List.copyOf(model));
+      }
+    }
+    assertEquals(model, seq.stream().collect(toUnmodifiableList()));
+    for (var i = 0; i < model.size(); i++) {
+      assertEquals(model.get(i), seq.get(i));
+    }
+    for (var i = 0; i < versions.size(); i++) {
+      assertEquals(snapshots.get(i), versions.get(i).stream().collect(toUnmodifiableList()));
+    }
+  }
+
+  // Q21
+
+  private static final class Concurrency {
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    <T> T slow(T value) {
+      calls.incrementAndGet();
+      var now = running.incrementAndGet();
+      max.accumulateAndGet(now, Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        throw new AssertionError(e);
+      } finally {
+        running.decrementAndGet();
+      }
+      return value;
+    }
+  }
+
+  @Test @Tag("Q21")
+  public void testMapAsyncKeepsOrder() {
+    var concurrency = new Concurrency();
+    var seq = Seq.range(0, 200).mapAsync(concurrency::slow, 8).map(x -> x * 2);
+    assertEquals(range(0, 200).map(x -> x * 2).boxed().collect(toUnmodifiableList()), seq.stream().collect(toUnmodifiableList()));
+    assertTrue(concurrency.max.get() > 1);
+    assertTrue(concurrency.max.get() <= 8);
+    var list = new ArrayList<Integer>();
+    seq.forEach(list::add);
+    assertEquals(200, list.size());
+    var iterated = new ArrayList<Integer>();
+    seq.iterator().forEachRemaining(iterated::add);
+    assertEquals(list, iterated);
+  }
+  @Test @Tag("Q21")
+  public void testMapAsyncGetComputesOnlyOneElement() {
+    var concurrency = new Concurrency();
+    var seq = Seq.range(0, 100).mapAsync(concurrency::slow, 8);
+    assertEquals(42, seq.get(42));
+    assertEquals(1, concurrency.calls.get());
+    assertEquals(100, seq.size());
+    assertEquals(1, concurrency.calls.get());
+  }
+  @Test @Tag("Q21")
+  public void testMapAsyncOnInfiniteIterator() {
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      var iterator = new CountingIterator(Integer.MAX_VALUE);
+      var seq = Seq.fromIterator(iterator, 16, false).mapAsync(x -> x * 2, 4);
+      assertEquals(0, seq.iterator().next());
+      assertEquals(List.of(0, 2, 4, 6, 8), seq.stream().limit(5).collect(toUnmodifiableList()));
+      assertTrue(iterator.next < 200);
+    });
+    var small = Seq.fromIterator(List.of(1, 2, 3).iterator(), 2, false).mapAsync(x -> x * 2, 2);
+    assertEquals("<2, 4, 6>", small.toString());
+    assertEquals(List.of(2, 4, 6), small.stream().collect(toUnmodifiableList()));
+  }
+  @Test @Tag("Q21")
+  public void testMapAsyncFailureAtElement() {
+    var seq = Seq.range(0, 100).mapAsync(x -> {
+      if (x == 50) {
+        throw new IllegalStateException("boom");
+      }
+      return x;
+    }, 4);
+    var list = new ArrayList<Integer>();
+    var exception = assertThrows(IllegalStateException.class, () -> seq.forEach(list::add));
+    assertEquals("boom", exception.getMessage());
+    assertEquals(range(0, 50).boxed().collect(toUnmodifiableList()), list);
+  }
+  @Test @Tag("Q21")
+  public void testMapAsyncWithExecutor() {
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var seq = Seq.of("a", "b", "c").mapAsync(String::toUpperCase, 2, executor);
+      assertEquals("<A, B, C>", seq.toString());
+    } finally {
+      executor.shutdown();
+    }
+  }
+  @Test @Tag("Q21")
+  public void testMapAsyncInvalid() {
+    assertAll(
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1).mapAsync(null, 1)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.of(1).mapAsync(x -> x, 0))
+    );
+  }
+
+  // Q22
+
+  @Test @Tag("Q22")
+  public void testMapBatchGetComputesOneChunk() {
+    var batches = new ArrayList<List<Integer>>();
+    var seq = Seq.range(0, 1_000).mapBatch(100, (List<Integer> keys) -> {
+      batches.add(keys);
+      return keys.stream().map(k -> "v" + k).collect(toUnmodifiableList());
+    });
+    assertEquals(1_000, seq.size());
+    assertTrue(batches.isEmpty());
+    assertEquals("v250", seq.get(250));
+    assertEquals("v299", seq.get(299));
+    assertEquals(List.of(range(200, 300).boxed().collect(toUnmodifiableList())), batches);
+    assertThrows(IndexOutOfBoundsException.class, () -> seq.get(1_000));
+  }
+  @Test @Tag("Q22")
+  public void testMapBatchTraversals() {
+    var calls = new AtomicInteger();
+    var seq = Seq.range(0, 1_050).mapBatch(100, (List<Integer> keys) -> {
+      calls.incrementAndGet();
+      return keys.stream().map(k -> k * 2).collect(toUnmodifiableList());
+    });
+    var expected = range(0, 1_050).map(x -> x * 2).boxed().collect(toUnmodifiableList());
+    assertEquals(expected, seq.stream().collect(toUnmodifiableList()));
+    assertEquals(expected, seq.parallelStream().collect(toUnmodifiableList()));
+    var list = new ArrayList<Integer>();
+    seq.forEach(list::add);
+    assertEquals(expected, list);
+    assertEquals(11, calls.get());
+  }
+  @Test @Tag("Q22")
+  public void testMapBatchSplitsOnChunks() {
+    var seq = Seq.range(0, 10_000).mapBatch(3_000, keys -> keys);
+    var spliterator = seq.stream(false, 1).spliterator();
+    var prefix = spliterator.trySplit();
+    assertEquals(3_000, prefix.estimateSize());
+    assertNull(prefix.trySplit());
+  }
+  @Test @Tag("Q22")
+  public void testMapBatchOnInfiniteIterator() {
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      var iterator = new CountingIterator(Integer.MAX_VALUE);
+      var seq = Seq.fromIterator(iterator, 16, false).mapBatch(50, keys -> keys);
+      assertEquals(0, iterator.next);
+      assertEquals(120, seq.get(120));
+      assertEquals(List.of(0, 1, 2), seq.stream().limit(3).collect(toUnmodifiableList()));
+      assertEquals(0, seq.iterator().next());
+      assertTrue(iterator.next < 200);
+    });
+    var small = Seq.fromIterator(List.of(1, 2, 3).iterator(), 2, false).mapBatch(2, keys -> keys);
+    assertEquals("<1, 2, 3>", small.toString());
+    assertEquals(3, small.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> small.get(3));
+  }
+  @Test @Tag("Q22")
+  public void testMapBatchInvalid() {
+    var seq = Seq.range(0, 10).mapBatch(4, keys -> List.of(1));
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> seq.get(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.of(1).mapBatch(0, keys -> keys)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1).mapBatch(1, null))
+    );
+  }
+
+
+  // Q23
+
+  @Test @Tag("Q23")
+  public void testMetricsEmptyIfNotInstrumented() {
+    assertTrue(Seq.of(1, 2).map(x -> x + 1).metrics().isEmpty());
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentCountsTraversals() {
+    var seq = Seq.range(0, 10).instrument("numbers");
+    seq.get(3);
+    seq.get(4);
+    seq.forEach(x -> {});
+    seq.iterator().next();
+    assertEquals(45, seq.stream().mapToInt(x -> x).sum());
+    seq.toString();
+    var metrics = seq.metrics().orElseThrow();
+    assertAll(
+        () -> assertEquals("numbers", metrics.name()),
+        () -> assertEquals(2, metrics.traversals(SeqMetrics.EntryPoint.GET)),
+        () -> assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.FOR_EACH)),
+        () -> assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.ITERATOR)),
+        () -> assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.STREAM)),
+        () -> assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.TO_STRING))
+    );
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentCountsStageInvocations() {
+    var seq = Seq.range(0, 1_000).map(x -> x * 2).instrument("doubled").map(x -> "" + x);
+    seq.forEach(x -> {});
+    assertEquals("20", seq.get(10));
+    var stages = seq.metrics().orElseThrow().stages();
+    assertAll(
+        () -> assertEquals(2, stages.size()),
+        () -> assertEquals(0, stages.get(0).index()),
+        () -> assertEquals(1, stages.get(1).index()),
+        () -> assertEquals(1_001, stages.get(0).invocations()),
+        () -> assertEquals(1_001, stages.get(1).invocations()),
+        () -> assertTrue(stages.get(0).sampledInvocations() <= 1_001),
+        () -> assertTrue(stages.get(0).meanNanos() >= 0)
+    );
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentSharedByViews() {
+    var seq = Seq.range(0, 100).instrument("range");
+    var view = seq.subSeq(10, 20).append(5);
+    view.get(0);
+    view.forEach(x -> {});
+    var metrics = seq.metrics().orElseThrow();
+    assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.GET));
+    assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.FOR_EACH));
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentReusesStageCounters() {
+    var seq = Seq.range(0, 10).instrument("range");
+    for (var i = 0; i < 1_000; i++) {
+      seq.map(x -> x + 1).get(0);
+    }
+    var stages = seq.metrics().orElseThrow().stages();
+    assertEquals(1, stages.size());
+    assertEquals(0, stages.get(0).index());
+    assertEquals(1_000, stages.get(0).invocations());
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentSharedByDerivedPipelines() {
+    var seq = Seq.range(0, 10).instrument("range").map(x -> x + 1);
+    var flat = seq.flatMap(x -> Seq.of(x, x)).map(x -> x * 2);
+    var async = seq.mapAsync(x -> x * 3, 2);
+    var batch = seq.mapBatch(4, chunk -> chunk);
+    var memo = seq.memoize();
+    assertEquals(8, flat.get(7));
+    assertEquals(30, async.get(9));
+    assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), batch.stream().collect(toUnmodifiableList()));
+    var before = seq.metrics().orElseThrow().stages().get(0).invocations();
+    memo.forEach(x -> {});
+    memo.forEach(x -> {});
+    for (var derived : List.of(flat, async, batch, memo)) {
+      assertSame(seq.metrics().orElseThrow().name(), derived.metrics().orElseThrow().name());
+    }
+    var metrics = seq.metrics().orElseThrow();
+    var indexes = metrics.stages().stream().map(SeqMetrics.StageMetrics::index).collect(toUnmodifiableList());
+    assertAll(
+        () -> assertEquals(List.of(0, 1, 2), indexes),
+        () -> assertEquals(2, metrics.traversals(SeqMetrics.EntryPoint.GET)),
+        () -> assertEquals(2, metrics.traversals(SeqMetrics.EntryPoint.FOR_EACH)),
+        () -> assertEquals(1, metrics.traversals(SeqMetrics.EntryPoint.STREAM)),
+        () -> assertEquals(before + 10, metrics.stages().get(0).invocations())
+    );
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentStagesAfterWith() {
+    var seq = Seq.of(1, 2, 3).instrument("x").map(x -> x + 1).map(x -> x * 2).with(0, 100).map(x -> x - 1);
+    assertEquals("<99, 5, 7>", seq.toString());
+    var stages = seq.metrics().orElseThrow().stages();
+    assertAll(
+        () -> assertEquals(List.of(0, 1, 2), stages.stream().map(SeqMetrics.StageMetrics::index).collect(toUnmodifiableList())),
+        () -> assertEquals(2, stages.get(0).invocations()),
+        () -> assertEquals(2, stages.get(1).invocations()),
+        () -> assertEquals(3, stages.get(2).invocations())
+    );
+  }
+
+  @Test @Tag("Q23")
+  public void testInstrumentKeepsElements() {
+    var seq = Seq.of("a", "b").map(String::toUpperCase);
+    assertEquals(seq.toString(), seq.instrument("letters").toString());
+    assertThrows(NullPointerException.class, () -> seq.instrument(null));
+  }
+
+
+  // Q24
+
+  @Test @Tag("Q24")
+  public void testFoldAndReduce() {
+    var seq = Seq.range(0, 100_000).map(x -> x % 1_000);
+    assertAll(
+        () -> assertEquals(49_950_000, seq.reduce(0, Integer::sum)),
+        () -> assertEquals(49_950_000, seq.reduce(Integer::sum).orElseThrow()),
+        () -> assertEquals(49_950_000L, seq.fold(0L, (acc, x) -> acc + x, Long::sum)),
+        () -> assertEquals(49_950_000L, seq.fold(0L, (acc, x) -> acc + x, Long::sum, 1)),
+        () -> assertTrue(Seq.<Integer>of().reduce(Integer::sum).isEmpty()),
+        () -> assertEquals(7, Seq.<Integer>of().reduce(7, Integer::sum))
+    );
+  }
+
+  @Test @Tag("Q24")
+  public void testReduceNullElements() {
+    var seq = Seq.range(0, 10_000).map(x -> x == 0 ? null : x);
+    assertAll(
+        () -> assertEquals(9_999, seq.reduce((a, b) -> b).orElseThrow()),
+        () -> assertThrows(NullPointerException.class, () -> seq.reduce((a, b) -> a)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1, 2).reduce((a, b) -> null)),
+        () -> assertEquals(1, Seq.of(1).reduce((a, b) -> null).orElseThrow())
+    );
+  }
+
+  @Test @Tag("Q24")
+  public void testFoldKeepsOrder() {
+    var seq = Seq.range(0, 10_000).map(String::valueOf);
+    var expected = IntStream.range(0, 10_000).mapToObj(String::valueOf).collect(Collectors.joining());
+    assertEquals(expected, seq.fold("", String::concat, String::concat, 100));
+    assertEquals(expected, seq.collect(Collectors.joining(), 7));
+  }
+
+  @Test @Tag("Q24")
+  public void testSumMinMax() {
+    var seq = Seq.range(0, 1_000_000);
+    assertAll(
+        () -> assertEquals(499_999_500_000L, seq.sumInt(x -> x)),
+        () -> assertEquals(499_999_500_000L, seq.sumLong(x -> x)),
+        () -> assertEquals(499_999_500_000.0, seq.sumDouble(x -> x)),
+        () -> assertEquals(0, seq.min(Comparator.naturalOrder()).orElseThrow()),
+        () -> assertEquals(999_999, seq.max(Comparator.naturalOrder()).orElseThrow()),
+        () -> assertTrue(Seq.<Integer>of().max(Comparator.naturalOrder()).isEmpty())
+    );
+  }
+
+  @Test @Tag("Q24")
+  public void testMinMaxReturnFirstOfEquals() {
+    var seq = Seq.of("bb", "a", "cc", "d");
+    assertEquals("a", seq.min(Comparator.comparingInt(String::length)).orElseThrow());
+    assertEquals("bb", seq.max(Comparator.comparingInt(String::length)).orElseThrow());
+  }
+
+  @Test @Tag("Q24")
+  public void testCollectParallel() {
+    var seq = Seq.range(0, 100_000).map(x -> x * 2);
+    assertEquals(seq.stream().collect(toUnmodifiableList()), seq.collect(toUnmodifiableList()));
+    assertEquals(50_000, seq.collect(Collectors.partitioningBy(x -> x % 4 == 0)).get(true).size());
+  }
+
+  @Test @Tag("Q24")
+  public void testReductionsUseTheThreads() {
+    var threads = ConcurrentHashMap.<Thread>newKeySet();
+    Seq.range(0, 1_000_000).map(x -> { threads.add(Thread.currentThread()); return x; }).sumInt(x -> x);
+    if (Runtime.getRuntime().availableProcessors() > 1) {
+      assertTrue(threads.size() > 1);
+    }
+  }
+
+  @Test @Tag("Q24")
+  public void testReductionsOnPulledAndConcatenatedSeqs() {
+    var pulled = Seq.fromIterator(IntStream.range(0, 10_000).iterator(), 100, true);
+    assertEquals(49_995_000L, pulled.sumLong(x -> x));
+    var concat = Seq.concat(Seq.range(0, 5_000), Seq.range(5_000, 10_000).map(x -> x));
+    assertEquals(IntStream.range(0, 10_000).boxed().collect(toUnmodifiableList()), concat.collect(toUnmodifiableList(), 1_000));
+  }
+
+  @Test @Tag("Q24")
+  public void testReductionsPreconditions() {
+    var seq = Seq.of(1, 2);
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> seq.fold(0, Integer::sum, Integer::sum, 0)),
+        () -> assertThrows(NullPointerException.class, () -> seq.reduce(null)),
+        () -> assertThrows(NullPointerException.class, () -> seq.collect(null)),
+        () -> assertThrows(NullPointerException.class, () -> seq.min(null))
+    );
+  }
+
+
+  // Q25
+
+  @Test @Tag("Q25")
+  public void testSortedBy() {
+    var seq = Seq.of("pear", "fig", "banana", "kiwi").sortedBy(String::length);
+    assertEquals("<fig, pear, kiwi, banana>", seq.toString());
+    assertEquals("banana", seq.get(3));
+    assertEquals(4, seq.size());
+  }
+
+  @Test @Tag("Q25")
+  public void testSortedByIsLazyAndComputesKeysOnce() {
+    var keys = new AtomicInteger();
+    var seq = Seq.range(0, 1_000).sortedBy(x -> {
+      keys.incrementAndGet();
+      return -x;
+    });
+    assertEquals(1_000, seq.size());
+    assertEquals(0, keys.get());
+    assertEquals(999, seq.get(0));
+    assertEquals(0, seq.get(999));
+    seq.forEach(x -> {});
+    assertEquals(1_000, keys.get());
+  }
+
+  @Test @Tag("Q25")
+  public void testSortedByMapsLazily() {
+    var mapped = new AtomicInteger();
+    var seq = Seq.of(3, 1, 2).sortedBy(x -> x).map(x -> {
+      mapped.incrementAndGet();
+      return "v" + x;
+    });
+    assertEquals("v1", seq.get(0));
+    assertEquals(1, mapped.get());
+  }
+
+  @Test @Tag("Q25")
+  public void testSortedByParallelIsStable() {
+    var random = new Random(0);
+    var values = random.ints(100_000, 0, 100).boxed().collect(toUnmodifiableList());
+    var indexes = Seq.range(0, values.size());
+    var sorted = indexes.sortedBy(values::get, Comparator.naturalOrder(), true);
+    var expected = IntStream.range(0, values.size()).boxed()
+        .sorted(Comparator.comparing(values::get)).collect(toUnmodifiableList());
+    assertEquals(expected, sorted.stream().collect(toUnmodifiableList()));
+    assertEquals(expected, indexes.sortedBy(values::get, false).stream().collect(toUnmodifiableList()));
+  }
+
+  @Test @Tag("Q25")
+  public void testTopK() {
+    var random = new Random(1);
+    var values = random.ints(1_000_000).boxed().collect(toUnmodifiableList());
+    var top = Seq.view(values).topK(100, Comparator.naturalOrder());
+    var expected = values.stream().sorted(Comparator.reverseOrder()).limit(100).collect(toUnmodifiableList());
+    assertEquals(expected, top.stream().collect(toUnmodifiableList()));
+  }
+
+  @Test @Tag("Q25")
+  public void testTopKSmallSeqs() {
+    assertAll(
+        () -> assertEquals("<3, 2, 1>", Seq.of(1, 3, 2).topK(5, Comparator.naturalOrder()).toString()),
+        () -> assertEquals("<>", Seq.of(1, 3, 2).topK(0, Comparator.naturalOrder()).toString()),
+        () -> assertEquals("<a>", Seq.of("b", "a").topK(1, Comparator.reverseOrder()).toString()),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.of(1).topK(-1, Comparator.naturalOrder())),
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1).sortedBy(null))
+    );
+  }
+
+
+  // Q26
+
+  @Test @Tag("Q26")
+  public void testIndexBy() {
+    var seq = Seq.of("apple", "avocado", "banana", "cherry", "apricot");
+    var index = seq.indexBy(s -> s.charAt(0));
+    assertAll(
+        () -> assertEquals("<apple, avocado, apricot>", index.get('a').toString()),
+        () -> assertEquals(3, index.count('a')),
+        () -> assertEquals(2, index.indexOf('b')),
+        () -> assertEquals(-1, index.indexOf('z')),
+        () -> assertFalse(index.contains('z')),
+        () -> assertEquals(0, index.get('z').size())
+    );
+  }
+
+  @Test @Tag("Q26")
+  public void testIndexByIsLazyAndComputesKeysOnce() {
+    var keys = new AtomicInteger();
+    var index = Seq.range(0, 10_000).indexBy(x -> {
+      keys.incrementAndGet();
+      return x % 100;
+    }, true);
+    assertEquals(0, keys.get());
+    assertEquals(100, index.get(42).size());
+    assertEquals(42, index.get(42).get(0));
+    assertEquals(9_942, index.get(42).get(99));
+    assertEquals(7, index.indexOf(7));
+    assertEquals(10_000, keys.get());
+  }
+
+  @Test @Tag("Q26")
+  public void testIndexByViewIsMappedLazily() {
+    var mapped = new AtomicInteger();
+    var seq = Seq.range(0, 100).map(x -> {
+      mapped.incrementAndGet();
+      return x;
+    });
+    var index = seq.indexBy(x -> x % 10);
+    index.contains(0);
+    var view = index.get(3).map(x -> x * 10);
+    mapped.set(0);
+    assertEquals(930, view.get(9));
+    assertEquals(1, mapped.get());
+  }
+
+  @Test @Tag("Q26")
+  public void testIndexByNullAndCollidingKeys() {
+    var index = Seq.of("Aa", "BB", "x", "Aa").indexBy(s -> s.length() == 1 ? null : s);
+    assertEquals("<Aa, Aa>", index.get("Aa").toString());
+    assertEquals("<BB>", index.get("BB").toString());
+    assertEquals("<x>", index.get(null).toString());
+  }
+
+  @Test @Tag("Q26")
+  public void testSortedIndexBetween() {
+    var seq = Seq.of(5, 1, 9, 3, 7, 3);
+    var index = seq.sortedIndexBy(x -> x);
+    assertAll(
+        () -> assertEquals("<3, 3, 5>", index.between(2, 7).toString()),
+        () -> assertEquals("<1, 3, 3, 5, 7, 9>", index.sorted().toString()),
+        () -> assertEquals("<3, 3>", index.get(3).toString()),
+        () -> assertEquals("<>", index.between(10, 20).toString()),
+        () -> assertThrows(IllegalArgumentException.class, () -> index.between(7, 2))
+    );
+  }
+
+  @Test @Tag("Q26")
+  public void testSortedIndexParallel() {
+    var random = new Random(2);
+    var values = random.ints(100_000, 0, 1_000).boxed().collect(toUnmodifiableList());
+    var index = Seq.view(values).sortedIndexBy(x -> x, Comparator.<Integer>naturalOrder(), true);
+    var expected = values.stream().filter(x -> x >= 100 && x < 200).sorted().collect(toUnmodifiableList());
+    assertEquals(expected, index.between(100, 200).stream().collect(toUnmodifiableList()));
+  }
+
+
+  // Q27
+
+  @Test @Tag("Q27")
+  public void testChunked() {
+    var seq = Seq.range(0, 10).chunked(4);
+    assertAll(
+        () -> assertEquals(3, seq.size()),
+        () -> assertEquals("<<0, 1, 2, 3>, <4, 5, 6, 7>, <8, 9>>", seq.toString()),
+        () -> assertEquals(9, seq.get(2).get(1)),
+        () -> assertEquals(0, Seq.of().chunked(3).size()),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.of(1).chunked(0))
+    );
+  }
+
+  @Test @Tag("Q27")
+  public void testSliding() {
+    var seq = Seq.range(0, 7).sliding(3, 2);
+    assertAll(
+        () -> assertEquals(3, seq.size()),
+        () -> assertEquals("<<0, 1, 2>, <2, 3, 4>, <4, 5, 6>>", seq.toString()),
+        () -> assertEquals("<>", Seq.of(1, 2).sliding(3, 1).toString()),
+        () -> assertEquals("<<1>, <2>>", Seq.of(1, 2).sliding(1, 1).toString()),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.of(1).sliding(1, 0))
+    );
+  }
+
+  @Test @Tag("Q27")
+  public void testSlidingIsLazy() {
+    var mapped = new AtomicInteger();
+    var windows = Seq.range(0, 1_000_000).map(x -> {
+      mapped.incrementAndGet();
+      return x;
+    }).sliding(100, 1);
+    assertEquals(999_901, windows.size());
+    assertEquals(500_099, windows.get(500_000).get(99));
+    assertEquals(1, mapped.get());
+  }
+
+  @Test @Tag("Q27")
+  public void testSlidingParallelStream() {
+    var sums = Seq.range(0, 100_000).sliding(10, 10).parallelStream()
+        .mapToLong(window -> window.sumLong(x -> x)).sum();
+    assertEquals(4_999_950_000L, sums);
+  }
+
+  @Test @Tag("Q27")
+  public void testZip() {
+    var zipped = Seq.of("a", "b", "c").zip(Seq.range(0, 2));
+    assertAll(
+        () -> assertEquals(2, zipped.size()),
+        () -> assertEquals("b", zipped.get(1).getKey()),
+        () -> assertEquals(1, zipped.get(1).getValue()),
+        () -> assertEquals("<a0, b1>", Seq.of("a", "b", "c").zip(Seq.range(0, 2), (s, i) -> s + i).toString()),
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1).zip(null))
+    );
+  }
+
+  @Test @Tag("Q27")
+  public void testZipWithIndex() {
+    var seq = Seq.of("a", "b").map(String::toUpperCase).zipWithIndex();
+    assertEquals("<0=A, 1=B>", seq.toString());
+    assertEquals(1, seq.get(1).getKey());
+  }
+
+
+  // Q28
+
+  private static final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+    private final LinkedBlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    private volatile Flow.Subscription subscription;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T item) {
+      events.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      events.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add("complete");
+    }
+
+    private Object next() throws InterruptedException {
+      var event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event);
+      return event;
+    }
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherSendsOnlyRequestedElements() throws InterruptedException {
+    var mapped = new AtomicInteger();
+    var publisher = Seq.range(0, 100).map(x -> {
+      mapped.incrementAndGet();
+      return x;
+    }).toPublisher();
+    var subscriber = new RecordingSubscriber<Integer>();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(3);
+    assertEquals(0, subscriber.next());
+    assertEquals(1, subscriber.next());
+    assertEquals(2, subscriber.next());
+    assertNull(subscriber.events.poll(100, TimeUnit.MILLISECONDS));
+    assertEquals(3, mapped.get());
+    subscriber.subscription.cancel();
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherCompletes() throws InterruptedException {
+    var subscriber = new RecordingSubscriber<String>();
+    Seq.of("a", "b").toPublisher(Runnable::run).subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("a", subscriber.next());
+    assertEquals("b", subscriber.next());
+    assertEquals("complete", subscriber.next());
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherEmptyCompletesWithoutRequest() throws InterruptedException {
+    var subscriber = new RecordingSubscriber<Object>();
+    Seq.of().toPublisher().subscribe(subscriber);
+    assertEquals("complete", subscriber.next());
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherIndependentSubscribers() throws InterruptedException {
+    var publisher = Seq.range(0, 10).toPublisher();
+    var first = new RecordingSubscriber<Integer>();
+    var second = new RecordingSubscriber<Integer>();
+    publisher.subscribe(first);
+    publisher.subscribe(second);
+    first.subscription.request(10);
+    second.subscription.request(1);
+    for (var i = 0; i < 10; i++) {
+      assertEquals(i, first.next());
+    }
+    assertEquals(0, second.next());
+    second.subscription.request(20);
+    for (var i = 1; i < 10; i++) {
+      assertEquals(i, second.next());
+    }
+    assertEquals("complete", first.next());
+    assertEquals("complete", second.next());
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherUnsizedSeq() throws InterruptedException {
+    var subscriber = new RecordingSubscriber<Integer>();
+    Seq.fromIterator(List.of(1, 2).iterator()).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(5);
+    assertEquals(1, subscriber.next());
+    assertEquals(2, subscriber.next());
+    assertEquals("complete", subscriber.next());
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherCancel() throws InterruptedException {
+    var subscriber = new RecordingSubscriber<Integer>();
+    Seq.range(0, 10).toPublisher().subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertEquals(0, subscriber.next());
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(5);
+    assertNull(subscriber.events.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test @Tag("Q28")
+  public void testPublisherErrors() throws InterruptedException {
+    var failing = new RecordingSubscriber<Integer>();
+    Seq.of(1, 0).map(x -> 1 / x).toPublisher().subscribe(failing);
+    failing.subscription.request(2);
+    assertEquals(1, failing.next());
+    assertTrue(failing.next() instanceof ArithmeticException);
+
+    var invalid = new RecordingSubscriber<Integer>();
+    Seq.of(1).toPublisher().subscribe(invalid);
+    invalid.subscription.request(0);
+    assertTrue(invalid.next() instanceof IllegalArgumentException);
+    assertThrows(NullPointerException.class, () -> Seq.of(1).toPublisher().subscribe(null));
+  }
+
+
+  // Q29
+
+  @Test @Tag("Q29")
+  public void testFilter() {
+    var seq = Seq.range(0, 10).filter(x -> x % 3 == 0);
+    assertAll(
+        () -> assertEquals("<0, 3, 6, 9>", seq.toString()),
+        () -> assertEquals(4, seq.size()),
+        () -> assertEquals(6, seq.get(2)),
+        () -> assertEquals("<0, 9, 18, 27>", seq.map(x -> x * 3).toString()),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(4)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(-1)),
+        () -> assertTrue(Seq.of(1, 2).filter(x -> x > 5).findFirst().isEmpty())
+    );
+  }
+
+  @Test @Tag("Q29")
+  public void testFilterScansOnlyAsFarAsNeeded() {
+    var tested = new AtomicInteger();
+    var seq = Seq.range(0, 1_000_000).filter(x -> {
+      tested.incrementAndGet();
+      return x % 2 == 0;
+    });
+    assertEquals(0, seq.findFirst().orElseThrow());
+    assertEquals(1, tested.get());
+    assertEquals(20, seq.get(10));
+    assertEquals(21, tested.get());
+    assertEquals(10, seq.get(5));
+    assertEquals(21, tested.get());
+    assertEquals(500_000, seq.size());
+    assertEquals(1_000_000, tested.get());
+    seq.forEach(x -> {});
+    assertEquals(1_000_000, tested.get());
+  }
+
+  @Test @Tag("Q29")
+  public void testFilterParallelStream() {
+    var seq = Seq.range(0, 1_000_000).filter(x -> x % 7 == 0);
+    seq.get(1_000);
+    var expected = IntStream.range(0, 1_000_000).filter(x -> x % 7 == 0).boxed().collect(toUnmodifiableList());
+    assertEquals(expected, seq.parallelStream().collect(toUnmodifiableList()));
+    assertEquals(expected, seq.stream().collect(toUnmodifiableList()));
+    assertEquals(expected.size(), seq.size());
+    assertEquals(expected, seq.parallelStream().collect(toUnmodifiableList()));
+  }
+
+  @Test @Tag("Q29")
+  public void testFlatMap() {
+    var seq = Seq.of(3, 0, 2).flatMap(n -> Seq.range(0, n).map(i -> n + ":" + i));
+    assertAll(
+        () -> assertEquals("<3:0, 3:1, 3:2, 2:0, 2:1>", seq.toString()),
+        () -> assertEquals(5, seq.size()),
+        () -> assertEquals("2:0", seq.get(3)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> seq.get(5)),
+        () -> assertTrue(Seq.of(0, 0).flatMap(n -> Seq.range(0, n)).findFirst().isEmpty())
+    );
+  }
+
+  @Test @Tag("Q29")
+  public void testFlatMapExpandsOnlyAsFarAsNeeded() {
+    var expanded = new AtomicInteger();
+    var seq = Seq.range(0, 1_000).flatMap(n -> {
+      expanded.incrementAndGet();
+      return Seq.of(n, n);
+    });
+    assertEquals(5, seq.get(10));
+    assertEquals(7, expanded.get());
+    assertEquals(2_000, seq.size());
+    assertEquals(999, seq.get(1_999));
+  }
+
+  @Test @Tag("Q29")
+  public void testFlatMapParallelStream() {
+    var seq = Seq.range(0, 100_000).flatMap(n -> n % 3 == 0 ? Seq.of(n, -n) : Seq.of());
+    var expected = IntStream.range(0, 100_000).filter(n -> n % 3 == 0).boxed()
+        .flatMap(n -> Stream.of(n, -n)).collect(toUnmodifiableList());
+    assertEquals(expected, seq.parallelStream().collect(toUnmodifiableList()));
+    assertEquals(0L, seq.sumLong(x -> x));
+  }
+
+  @Test @Tag("Q29")
+  public void testFlatMapSizedTraversalsExpandOnce() {
+    var expanded = new AtomicInteger();
+    var seq = Seq.range(0, 10_000).flatMap(x -> {
+      expanded.incrementAndGet();
+      return Seq.of(x, x, x, x);
+    });
+    assertEquals(40_000, seq.size());
+    expanded.set(0);
+    assertEquals(4L * 49_995_000, seq.sumInt(x -> x));
+    assertEquals(10_000, expanded.get());
+    expanded.set(0);
+    assertEquals(4L * 49_995_000, seq.parallelStream().mapToLong(x -> x).sum());
+    assertEquals(10_000, expanded.get());
+    assertEquals(List.of(1, 1, 2, 2), seq.subSeq(6, 10).stream().collect(toUnmodifiableList()));
+  }
+
+  @Test @Tag("Q29")
+  public void testFilterAndFlatMapOnInfiniteIterator() {
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      var iterator = new CountingIterator(Integer.MAX_VALUE);
+      var seq = Seq.fromIterator(iterator, 16, false);
+      var odd = seq.filter(x -> x % 2 == 1);
+      var pairs = seq.flatMap(x -> Seq.of(x, -x));
+      assertAll(
+          () -> assertEquals(1, odd.get(0)),
+          () -> assertEquals(1, odd.stream().findFirst().orElseThrow()),
+          () -> assertEquals(1, odd.iterator().next()),
+          () -> assertEquals(3, odd.get(1)),
+          () -> assertEquals(-1, pairs.get(3)),
+          () -> assertEquals(0, pairs.stream().findFirst().orElseThrow()),
+          () -> assertEquals(List.of(0, 0, 1, -1), pairs.stream().limit(4).collect(toUnmodifiableList())),
+          () -> assertTrue(iterator.next < 100)
+      );
+    });
+  }
+
+
+  // Q30
+
+  @Test @Tag("Q30")
+  public void testForce() {
+    var mapped = new AtomicInteger();
+    var seq = Seq.range(0, 100_000).map(x -> {
+      mapped.incrementAndGet();
+      return x * 2;
+    });
+    var forced = seq.force();
+    assertEquals(100_000, mapped.get());
+    assertEquals(100_000, forced.size());
+    assertEquals(seq.stream().collect(toUnmodifiableList()), forced.stream().collect(toUnmodifiableList()));
+    mapped.set(0);
+    forced.get(5);
+    forced.forEach(x -> {});
+    assertEquals(0, mapped.get());
+  }
+
+  @Test @Tag("Q30")
+  public void testMaterialize() {
+    var seq = Seq.range(0, 50_000).map(String::valueOf);
+    var expected = seq.stream().collect(toUnmodifiableList());
+    assertAll(
+        () -> assertEquals(expected, seq.materialize(1).stream().collect(toUnmodifiableList())),
+        () -> assertEquals(expected, seq.materialize(3).stream().collect(toUnmodifiableList())),
+        () -> assertEquals("<>", Seq.of().materialize(2).toString()),
+        () -> assertThrows(IllegalArgumentException.class, () -> seq.materialize(0))
+    );
+  }
+
+  @Test @Tag("Q30")
+  public void testForceUnsizedAndBatchedSeqs() {
+    var pulled = Seq.fromIterator(IntStream.range(0, 5_000).iterator(), 100, false).filter(x -> x % 2 == 0);
+    assertEquals(2_500, pulled.force().size());
+    var batches = new AtomicInteger();
+    var batched = Seq.range(0, 10_000).mapBatch(1_000, keys -> {
+      batches.incrementAndGet();
+      return keys;
+    });
+    assertEquals(49_995_000L, batched.force().sumLong(x -> x));
+    assertEquals(10, batches.get());
+  }
+
+  @Test @Tag("Q30")
+  public void testForcePrimitives() {
+    var seq = Seq.of("a", "bb", "ccc");
+    assertAll(
+        () -> assertEquals("<1, 2, 3>", seq.forceInt(String::length).toString()),
+        () -> assertEquals("<1, 2, 3>", seq.forceLong(String::length).toString()),
+        () -> assertEquals("<1.0, 2.0, 3.0>", seq.forceDouble(String::length).toString()),
+        () -> assertEquals(49_995_000, Seq.range(0, 10_000).forceInt(x -> x).sum())
+    );
+  }
+
+
+  // Q31
+
+  @Test @Tag("Q31")
+  public void testWriteToAppendable() throws IOException {
+    var seq = Seq.of(1, 2, 3).map(x -> x * 10);
+    var builder = new StringBuilder();
+    seq.writeTo(builder);
+    assertEquals(seq.toString(), builder.toString());
+    assertEquals("<10, 20, 30>", builder.toString());
+    var custom = new StringBuilder();
+    seq.writeTo(custom, TextFormat.of(";", "[", "]"));
+    assertEquals("[10;20;30]", custom.toString());
+  }
+
+  @Test @Tag("Q31")
+  public void testWriteToChannel(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("seq.txt");
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      Seq.range(0, 100_000).writeTo(channel, StandardCharsets.UTF_8);
+    }
+    assertEquals(Seq.range(0, 100_000).toString(), Files.readString(path));
+    var utf16 = directory.resolve("seq16.txt");
+    try (var channel = FileChannel.open(utf16, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      Seq.of("é", "ü").writeTo(channel, StandardCharsets.UTF_16BE, TextFormat.of("|", "", ""));
+    }
+    assertEquals("é|ü", Files.readString(utf16, StandardCharsets.UTF_16BE));
+  }
+
+  @Test @Tag("Q31")
+  public void testCsv() throws IOException {
+    var out = new StringBuilder();
+    Seq.of(List.of("id", "name"), List.of(1, "a,b"), List.of(2, "say \"hi\"")).writeTo(out, TextFormat.csv());
+    assertEquals("id,name\n1,\"a,b\"\n2,\"say \"\"hi\"\"\"\n", out.toString());
+    var pairs = new StringBuilder();
+    Seq.of("x", "y").zipWithIndex().writeTo(pairs, TextFormat.csv());
+    assertEquals("0,x\n1,y\n", pairs.toString());
+  }
+
+  @Test @Tag("Q31")
+  public void testJsonLines() throws IOException {
+    var out = new StringBuilder();
+    Seq.<Object>of(1, 2.5, Double.NaN, true, "a\"b\n", List.of(1, "x"), Map.of("k", 3), Map.entry("e", 4L))
+        .writeTo(out, TextFormat.jsonLines());
+    assertEquals("1\n2.5\nnull\ntrue\n\"a\\\"b\\n\"\n[1,\"x\"]\n{\"k\":3}\n{\"key\":\"e\",\"value\":4}\n", out.toString());
+  }
+
+  @Test @Tag("Q31")
+  public void testToStringMaxElements() {
+    var mapped = new AtomicInteger();
+    var seq = Seq.range(0, 1_000_000).map(x -> {
+      mapped.incrementAndGet();
+      return x;
+    });
+    assertAll(
+        () -> assertEquals("<0, 1, 2, ...>", seq.toString(3)),
+        () -> assertEquals("<...>", seq.toString(0)),
+        () -> assertEquals("<1, 2>", Seq.of(1, 2).toString(2)),
+        () -> assertEquals("<>", Seq.of().toString(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> seq.toString(-1))
+    );
+    assertEquals(3, mapped.get());
+  }
+
+
+  // Q32
+
+  private static ByteBuffer binary(Seq<String> seq, boolean parallel) throws IOException {
+    var out = new ByteArrayOutputStream();
+    seq.writeBinary(Channels.newChannel(out), ElementCodec.STRING, parallel);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryRoundTrip(@TempDir Path directory) throws IOException {
+    var seq = Seq.range(0, 200_000).map(x -> x % 10 == 0 ? "" : "element " + x);
+    var path = directory.resolve("seq.bin");
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      seq.writeBinary(channel, ElementCodec.STRING);
+    }
+    var read = Seq.readBinary(path, ElementCodec.STRING);
+    assertAll(
+        () -> assertEquals(200_000, read.size()),
+        () -> assertEquals("", read.get(0)),
+        () -> assertEquals("element 123457", read.get(123_457)),
+        () -> assertEquals(seq.stream().collect(toUnmodifiableList()), read.parallelStream().collect(toUnmodifiableList()))
+    );
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryParallelWriteIsIdentical() throws IOException {
+    var seq = Seq.range(0, 150_000).map(x -> "v".repeat(x % 7));
+    assertEquals(binary(seq, false), binary(seq, true));
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryDecodesLazily() throws IOException {
+    var decoded = new AtomicInteger();
+    var codec = ElementCodec.<Integer>of((value, out) -> out.writeInt(value), (buffer, offset, length) -> {
+      decoded.incrementAndGet();
+      return buffer.getInt(offset);
+    });
+    var out = new ByteArrayOutputStream();
+    Seq.range(0, 1_000).writeBinary(Channels.newChannel(out), codec);
+    var read = Seq.readBinary(ByteBuffer.wrap(out.toByteArray()), codec);
+    assertEquals(1_000, read.size());
+    assertEquals(0, decoded.get());
+    assertEquals(500, read.get(500));
+    assertEquals(1, decoded.get());
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryFromBufferPosition() throws IOException {
+    var bytes = binary(Seq.of("a", "bc"), false);
+    var buffer = ByteBuffer.allocate(bytes.remaining() + 3).position(3);
+    buffer.put(bytes).position(3);
+    assertEquals("<a, bc>", Seq.readBinary(buffer, ElementCodec.STRING).toString());
+    assertEquals("<>", Seq.readBinary(binary(Seq.of(), false), ElementCodec.STRING).toString());
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryCodecs() throws IOException {
+    var out = new ByteArrayOutputStream();
+    Seq.of(1.5, -2.0).writeBinary(Channels.newChannel(out), ElementCodec.DOUBLE);
+    assertEquals("<1.5, -2.0>", Seq.readBinary(ByteBuffer.wrap(out.toByteArray()), ElementCodec.DOUBLE).toString());
+  }
+
+  @Test @Tag("Q32")
+  public void testBinaryErrors() {
+    var failing = ElementCodec.<Integer>of((value, out) -> {
+      throw new IOException("boom");
+    }, (buffer, offset, length) -> 0);
+    assertAll(
+        () -> assertThrows(IOException.class, () -> Seq.of(1).writeBinary(Channels.newChannel(new ByteArrayOutputStream()), failing)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Seq.readBinary(ByteBuffer.allocate(64), ElementCodec.STRING)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.of(1).writeBinary(null, ElementCodec.INT))
+    );
+  }
+
+
+  // Q33
+
+  private record Sample(int id, long ts, double value, String name, short level, float ratio) {}
+
+  private static List<Sample> samples(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new Sample(i, 1_000L * i, i / 2.0, "s" + i, (short) (i % 5), i / 4f))
+        .collect(toUnmodifiableList());
+  }
+
+  @Test @Tag("Q33")
+  public void testColumnarProjections() {
+    var columnar = Seq.columnar(Sample.class, samples(1_000));
+    assertAll(
+        () -> assertEquals(1_000, columnar.size()),
+        () -> assertEquals(499_500, columnar.intColumn("id").sum()),
+        () -> assertEquals(999_000L, columnar.longColumn("ts").max().getAsLong()),
+        () -> assertEquals(249_750.0, columnar.doubleColumn("value").sum()),
+        () -> assertEquals("s42", columnar.column("name", String.class).get(42)),
+        () -> assertEquals(4, columnar.intColumn("level").get(9)),
+        () -> assertEquals((short) 4, columnar.column("level", Short.class).get(9)),
+        () -> assertEquals(0.25f, columnar.column("ratio", Float.class).get(1))
+    );
+  }
+
+  @Test @Tag("Q33")
+  public void testColumnarRows() {
+    var samples = samples(100);
+    var rows = Seq.columnar(Sample.class, samples).rows();
+    assertEquals(samples, rows.stream().collect(toUnmodifiableList()));
+    assertEquals(samples.get(17), rows.get(17));
+    assertEquals("s3", rows.map(Sample::name).get(3));
+  }
+
+  @Test @Tag("Q33")
+  public void testColumnarErrors() {
+    var columnar = Seq.columnar(Sample.class, samples(3));
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> columnar.intColumn("missing")),
+        () -> assertThrows(IllegalArgumentException.class, () -> columnar.intColumn("ts")),
+        () -> assertThrows(IllegalArgumentException.class, () -> columnar.column("id", String.class)),
+        () -> assertThrows(NullPointerException.class, () -> Seq.columnar(Sample.class, List.of(new Sample(1, 2, 3, null, (short) 0, 0f)))),
+        () -> assertEquals(0, Seq.columnar(Sample.class, List.of()).rows().size())
+    );
+  }
+}
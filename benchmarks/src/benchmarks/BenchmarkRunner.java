@@ -0,0 +1,37 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the GC/allocation profiler and writes the results as JSON
+ * in benchmarks/results/(label).json, the label is the value of the property bench.label
+ * or the current date, use the commit id as label to diff two commits.
+ * any JMH command line option (benchmark regex, -p, -f ...) can be passed as argument
+ * */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        var label = System.getProperty("bench.label",
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        var directory = Path.of(System.getProperty("bench.results", "benchmarks/results"));
+        Files.createDirectories(directory);
+        var options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(directory.resolve(label + ".json").toString())
+            .build();
+        new Runner(options).run();
+    }
+}
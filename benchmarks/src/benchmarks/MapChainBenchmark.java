@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import core.classes.Seq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * per element cost of a lazySeq mapped depth times, the score is in ns per element
+ * so it should grow with the work done by the stages and not with the nesting of the chain
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapChainBenchmark {
+    private static final int SIZE = 100_000;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int depth;
+
+    private List<Integer> list;
+    private Seq<Integer> seq;
+
+    @Setup
+    public void setup() {
+        list = SeqBenchmark.range(SIZE);
+        var seq = Seq.from(list);
+        for (var i = 0; i < depth; i++) {
+            // a different lambda class per stage, like a real code base
+            seq = seq.map(stage(i));
+        }
+        this.seq = seq;
+    }
+
+    private static Function<Integer, Integer> stage(int i) {
+        switch (i % 4) {
+            case 0: return x -> x + 1;
+            case 1: return x -> x ^ 0x5f;
+            case 2: return x -> x * 3;
+            default: return x -> x - 7;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void seqForEach(Blackhole blackhole) {
+        seq.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long seqGet() {
+        var sum = 0L;
+        for (var i = 0; i < SIZE; i++) {
+            sum += seq.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void andThenChain(Blackhole blackhole) {
+        var function = Function.<Integer>identity();
+        for (var i = 0; i < depth; i++) {
+            function = function.andThen(stage(i));
+        }
+        for (var element : list) {
+            blackhole.consume(function.apply(element));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void streamMapChain(Blackhole blackhole) {
+        Stream<Integer> stream = list.stream();
+        for (var i = 0; i < depth; i++) {
+            stream = stream.map(stage(i));
+        }
+        stream.forEach(blackhole::consume);
+    }
+}
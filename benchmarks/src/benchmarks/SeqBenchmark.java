@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import core.classes.Seq;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * traversal cost of a mapped lazySeq compared to an ArrayList and a Stream doing the same work
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeqBenchmark {
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private ArrayList<Integer> list;
+    private Seq<Integer> seq;
+
+    @Setup
+    public void setup() {
+        list = IntStream.range(0, size).boxed().collect(Collectors.toCollection(ArrayList::new));
+        seq = Seq.from(list).map(x -> x + 1);
+    }
+
+    @Benchmark
+    public long seqGet() {
+        var sum = 0L;
+        for (var i = 0; i < size; i++) {
+            sum += seq.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayListGet() {
+        var sum = 0L;
+        for (var i = 0; i < size; i++) {
+            sum += list.get(i) + 1;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void seqForEach(Blackhole blackhole) {
+        seq.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void arrayListForEach(Blackhole blackhole) {
+        list.forEach(x -> blackhole.consume(x + 1));
+    }
+
+    @Benchmark
+    public void seqIterator(Blackhole blackhole) {
+        for (var value : seq) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void arrayListIterator(Blackhole blackhole) {
+        for (var value : list) {
+            blackhole.consume(value + 1);
+        }
+    }
+
+    @Benchmark
+    public long seqStream() {
+        return seq.stream().mapToLong(x -> x).sum();
+    }
+
+    @Benchmark
+    public long seqParallelStream() {
+        return seq.parallelStream().mapToLong(x -> x).sum();
+    }
+
+    @Benchmark
+    public long listStream() {
+        return list.stream().map(x -> x + 1).mapToLong(x -> x).sum();
+    }
+
+    @Benchmark
+    public long listParallelStream() {
+        return list.parallelStream().map(x -> x + 1).mapToLong(x -> x).sum();
+    }
+
+    @Benchmark
+    public String seqToString() {
+        return seq.toString();
+    }
+
+    @Benchmark
+    public String listToString() {
+        return list.stream().map(x -> String.valueOf(x + 1)).collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toUnmodifiableList());
+    }
+}